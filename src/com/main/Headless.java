@@ -0,0 +1,36 @@
+package com.main;
+
+/**
+ * Headless.java runs a single simulation without a window, as fast as possible. <br>
+ * Inputs are given as name=value arguments (See: Scenario.set), and the final stats are printed as CSV (See: SimulationResult.java)
+ * <br>
+ * Example: java com.main.Headless angle=30 passengers=100 exits=11110111 communication=0
+ */
+
+public class Headless {
+
+	//start of program
+	public static void main(String[] args){
+		
+		//read the scenario from the arguments
+		Scenario scenario = new Scenario();
+		try{
+			for(String arg : args){
+				int split = arg.indexOf('=');
+				if(split == -1) throw new IllegalArgumentException("Expected name=value: " + arg);
+				scenario.set(arg.substring(0, split), arg.substring(split + 1));
+			}
+			scenario.validate();
+		}catch(IllegalArgumentException e){
+			System.err.println(e.getMessage());
+			System.err.println("Inputs: angle velocity passengers massMin massMax fatalities communication survivalTime planner exits tickThreads planThreads planLag replanBudget pathCache seed");
+			System.exit(2);
+		}
+		
+		//run the simulation and print the results
+		SimulationResult result = Simulation.create(scenario).run();
+		System.out.println(SimulationResult.CSVHEADER);
+		System.out.println(result.toCsv());
+	}
+	
+}
@@ -29,7 +29,7 @@ public class Main extends Canvas implements Runnable {
 	private static int scale = 1;
 	
 	//holds if the program is running or not
-	private static boolean running = false;
+	private boolean running = false;
 	
 	//the main thread for the program
 	private Thread thread; 
@@ -37,9 +37,6 @@ public class Main extends Canvas implements Runnable {
 	//the main simulation frame
 	private JFrame simulationFrame;
 	
-	//the time since the simulation began
-	public static double simulationTime = 0.0;
-	
 	//Instantiate pixel buffers
 	private static BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB); //handles each individual pixel
 	private static int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData(); // gives a rectangular array of pixels that can be written to
@@ -50,13 +47,16 @@ public class Main extends Canvas implements Runnable {
 	//the main Plane instance. (See: Plane.java)
 	private Plane plane;
 	
-	//the rate at which the simulation is run
-	//NOTE: This value is directly manipulated by the controlpanel
+	//the simulation logic, run for the plane (See: Simulation.java)
+	private Simulation simulation;
+	
+	//the rate at which the simulation is run, in updates per second
+	//NOTE: This value is directly manipulated by the controlpanel. Each update is a fixed step of simulation time (See: Simulation.DT),
+	//so a higher rate runs the simulation faster than real time without changing its results
 	private int simulationSpeed = 60;
 	
-	//the time at which survival is viable. When the time increases beyond this limit, the simulation will end
-	//NOTE: Directly manipulated via controlpanel
-	private int survivalTime;
+	//the seed of the run (See: Scenario.seed)
+	private long seed;
 	
 	//constructor
 	public Main(){
@@ -74,13 +74,13 @@ public class Main extends Canvas implements Runnable {
 		new ControlPanel(this, simulationFrame);
 		
 		//create a new plane object
-		plane = new Plane(this);
+		plane = new Plane();
 	}
 	
 	//Runs the simulation, accepting all required initial values for the simulation
 	//NOTE: This function is exclusively called from ControlPanel.java
 	public void runSimulation(int passengerCount, double survivalChance, boolean accountForSurvival, 
-			double gForce, int[] massIndex, boolean[] workingExits, boolean communication, boolean renderPath, int simulationSpeed, int survivalTime){
+			double gForce, int[] massIndex, boolean[] workingExits, boolean communication, boolean renderPath, int simulationSpeed, int survivalTime, long seed){
 		
 		//re-set the location of the frame
 		simulationFrame.setLocationRelativeTo(null);
@@ -88,11 +88,11 @@ public class Main extends Canvas implements Runnable {
 		//set the simulation speed
 		this.simulationSpeed = simulationSpeed;
 		
-		//set the survival time
-		this.survivalTime = survivalTime;
-		
-		//give the initial data to the Plane.java class
+		//seed the plane, then give the initial data to the Plane.java class
+		this.seed = seed;
+		plane.setSeed(Scenario.planeSeed(seed));
 		plane.generateSimulation(passengerCount, survivalChance, accountForSurvival, gForce, massIndex, workingExits, communication, renderPath);
+		simulation = new Simulation(plane, survivalTime);
 		
 		//start the simulation
 		start();	
@@ -161,17 +161,8 @@ public class Main extends Canvas implements Runnable {
 			
 			if(System.currentTimeMillis() - timer > 1000){
 				timer += 1000;
-				simulationFrame.setTitle("Simulation" + "  | " + updates + " ups, " + frames + " fps" + "  | T+ " + simulationTime);
+				simulationFrame.setTitle("Simulation" + "  | " + updates + " ups, " + frames + " fps" + "  | T+ " + (int) simulation.getSimulationTime());
 				updates = 0;
-				simulationTime += (simulationSpeed/60.0);
-				
-				//if the time is greater than the survivable time, then stop the program
-				if(simulationTime > survivalTime){
-					//display the stats
-					plane.printStats();
-					stop();
-				}
-				
 				frames = 0;
 			}
 		}
@@ -180,7 +171,14 @@ public class Main extends Canvas implements Runnable {
 	
 	//update function
 	public void update(){
-		plane.update();
+		simulation.update();
+		
+		//if all passengers have escaped or the survival time has passed, print the final stats and stop the simulation
+		if(simulation.isFinished()){
+			plane.printStats();
+			System.out.println("Seed: " + seed);
+			stop();
+		}
 	}
 	
 	///render
@@ -0,0 +1,140 @@
+package com.main;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.main.util.Distribution;
+import com.main.util.RandomStream;
+
+/**
+ * MonteCarlo.java runs many replicates of a single scenario, each with its own seed, and prints the distribution of the results. <br>
+ * Inputs are given as name=value arguments, as with Headless.java, with the following extra inputs:
+ * <ul>
+ * 	<li> replicates: the number of runs (default: 100)
+ * 	<li> workers: the number of runs at the same time (default: the number of cores)
+ * 	<li> results: a CSV file to write the result of every run to (optional)
+ * </ul>
+ * The seed of each replicate is derived from the scenario seed, so a batch with the same inputs and seed always gives the same results,
+ * no matter how many workers are used.
+ * <br>
+ * Example: java com.main.MonteCarlo angle=30 exits=11110111 replicates=1000 seed=42
+ */
+
+public class MonteCarlo {
+
+	//the number of replicates run by default
+	public static final int DEFAULTREPLICATES = 100;
+
+	//the columns of the printed distributions
+	public static final String CSVHEADER = "metric," + Distribution.CSVHEADER;
+
+	//start of program
+	public static void main(String[] args){
+
+		//read the inputs
+		Scenario scenario = new Scenario();
+		int replicates = DEFAULTREPLICATES;
+		int workers = Runtime.getRuntime().availableProcessors();
+		String results = null;
+		try{
+			for(String arg : args){
+				int split = arg.indexOf('=');
+				if(split == -1) throw new IllegalArgumentException("Expected name=value: " + arg);
+				String name = arg.substring(0, split);
+				String value = arg.substring(split + 1);
+
+				//read the batch inputs, passing all others to the scenario
+				if(name.equals("replicates")) replicates = Integer.parseInt(value);
+				else if(name.equals("workers")) workers = Integer.parseInt(value);
+				else if(name.equals("results")) results = value;
+				else scenario.set(name, value);
+			}
+			if(replicates <= 0) throw new IllegalArgumentException("Invalid range for replicates");
+			if(workers <= 0) throw new IllegalArgumentException("Invalid range for workers");
+			scenario.validate();
+		}catch(IllegalArgumentException e){
+			System.err.println(e.getMessage());
+			System.err.println("Inputs: angle velocity passengers massMin massMax fatalities communication survivalTime planner exits tickThreads planThreads planLag replanBudget pathCache seed replicates workers results");
+			System.exit(2);
+		}
+
+		//run the replicates, then print the distributions
+		SimulationResult[] runs = runReplicates(scenario, replicates, Math.min(workers, replicates));
+		if(results != null) writeResults(runs, results);
+		printDistributions(runs);
+	}
+
+	//returns the seed of a replicate, derived from the scenario seed
+	//NOTE: The bits of the seed are mixed, so replicates next to each other do not have similar seeds
+	public static long replicateSeed(long seed, long replicate){
+		return RandomStream.deriveSeed(seed, replicate);
+	}
+
+	//runs the replicates on a pool of threads. Returns the results indexed by replicate
+	//NOTE: Each replicate has its own simulation, so replicates share no state (See: Simulation.java)
+	public static SimulationResult[] runReplicates(final Scenario scenario, int replicates, int workers){
+
+		//queue every replicate, each with its own seed
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		List<Future<SimulationResult>> futures = new ArrayList<Future<SimulationResult>>();
+		for(int r = 0; r < replicates; r++){
+			final Scenario replicate = scenario.copy();
+			replicate.seed = replicateSeed(scenario.seed, r);
+			futures.add(executor.submit(new Callable<SimulationResult>(){
+				public SimulationResult call(){
+					return Simulation.create(replicate).run();
+				}
+			}));
+		}
+
+		//wait for every replicate to finish
+		SimulationResult[] runs = new SimulationResult[replicates];
+		try{
+			for(int r = 0; r < replicates; r++){
+				runs[r] = futures.get(r).get();
+			}
+		}catch(InterruptedException | ExecutionException e){
+			throw new RuntimeException("Replicates failed", e);
+		}finally{
+			executor.shutdownNow();
+		}
+		return runs;
+	}
+
+	//writes the result of every replicate to a CSV file
+	private static void writeResults(SimulationResult[] runs, String path){
+		try(PrintWriter out = new PrintWriter(path)){
+			out.println("replicate," + SimulationResult.CSVHEADER);
+			for(int r = 0; r < runs.length; r++){
+				out.println(r + "," + runs[r].toCsv());
+			}
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+
+	//prints the distribution of the escaped count, perished count and evacuation time
+	private static void printDistributions(SimulationResult[] runs){
+		double[] escaped = new double[runs.length];
+		double[] perished = new double[runs.length];
+		double[] time = new double[runs.length];
+		for(int r = 0; r < runs.length; r++){
+			escaped[r] = runs[r].getEscaped();
+			perished[r] = runs[r].getPerished();
+			time[r] = runs[r].getTime();
+		}
+
+		System.out.println(CSVHEADER);
+		System.out.println("escaped," + new Distribution(escaped).toCsv());
+		System.out.println("perished," + new Distribution(perished).toCsv());
+		System.out.println("time," + new Distribution(time).toCsv());
+	}
+
+}
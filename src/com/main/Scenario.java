@@ -0,0 +1,211 @@
+package com.main;
+
+import com.main.entity.Passenger;
+import com.main.entity.Plane;
+import com.main.pathfinding.Planner;
+import com.main.util.RandomStream;
+
+/**
+ * Scenario.java holds the inputs of a single simulation run, and the formulas that derive the crash data from them. <br>
+ * The defaults match the initial values of the control panel (See: ControlPanel.java)
+ * 
+ * <br>
+ * <h2>A list of all equations applied to the scenario</h2>
+ * <ul>
+ * 
+ * <h4>Deceleration</h4>
+ * <li>a = v / t(A)</li>
+ * v = velocity on impact (m/s) <br>
+ * t(A) = deceleration time (s) (See: Plane.java)
+ * <br>
+ * 
+ * <h4>G force</h4>
+ * <li>g = a / 9.81</li>
+ * 
+ * </ul>
+ */
+
+public class Scenario {
+
+	//the angle of the crash (degrees)
+	public double angle = 45;
+	
+	//the velocity of the plane on impact (m/s)
+	public double velocity = 246;
+	
+	//the amount of souls on board. max = 132
+	public int passengerCount = 132;
+	
+	//the minimum and maximum mass of a passenger (kg)
+	public int massMin = 36, massMax = 100;
+	
+	//holds if the survival chance will be applied or not
+	public boolean accountForSurvival = true;
+	
+	//determines if the passengers should communicate or not
+	public boolean communication = true;
+	
+	//holds each exit, with a boolean value representing if a exit works
+	public boolean[] workingExits = {true, true, true, true, true, true, true, true};
+	
+	//the time at which survival is viable (s)
+	public int survivalTime = 100;
+	
+	//the path planner used by all passengers
+	public Planner planner = Planner.GRID;
+	
+	//the number of threads passengers are moved on in parallel, or 0 to update passengers one at a time (See: Plane.update)
+	public int tickThreads = 0;
+	
+	//the number of threads paths are searched for on in the background, or 0 to search during the tick (See: PlanningService.java)
+	public int planThreads = 0;
+	
+	//the number of ticks after a background search is submitted that its path is applied. Passengers follow their old path until then
+	//NOTE: Only used with plan threads. With a lag of 1, the next tick waits for every search of the batch (See: Passenger.applyPlannedPath)
+	public int planLag = 1;
+	
+	//the largest number of passengers who find a new path each tick, or 0 for no limit (See: ReplanQueue.java)
+	public int replanBudget = 0;
+	
+	//the largest number of paths held in the path cache, shared by the runs of a batch, or 0 to search for every path (See: PathCache.java)
+	public int pathCache = 4096;
+	
+	//the seed of all random values in the run. Runs with the same inputs and seed give the same results
+	public long seed = new RandomStream().nextLong();
+	
+	//the numbers of the streams derived from the seed (See: RandomStream.deriveSeed)
+	public static final int MASSSTREAM = 0, PLANESTREAM = 1;
+
+	//calculate the deceleration time.
+	//Accepts: The angle of impact
+	public static double calculateDecelTime(double angle){
+		return (-1 * Math.pow(2, (0.059*angle)) + 40 )/6.5;
+	}
+	
+	//calculate the percentage chance of a passenger surviving
+	//Accepts: the gForce on impact
+	public static double calculateSurvivalChance(double gForce){
+		
+		//if the gForce is higher than the deadly gForce, then set the survival rate to 0
+		if(gForce > Passenger.DEATHLYGFORCE) return 0.0;
+		return (1.0 - (gForce/Passenger.DEATHLYGFORCE))*100;
+	}
+	
+	//returns the deceleration of the plane on impact
+	public double getDeceleration(){
+		return velocity / calculateDecelTime(angle);
+	}
+	
+	//returns the gForces applied on impact
+	public double getGForce(){
+		return getDeceleration()/9.81;
+	}
+	
+	//returns the percentage chance of a passenger surviving
+	public double getSurvivalChance(){
+		return calculateSurvivalChance(getGForce());
+	}
+	
+	//randomly generates the mass of each passenger, within the mass minimum and maximum
+	public int[] generateMassIndex(){
+		return generateMassIndex(passengerCount, massMin, massMax, seed);
+	}
+	
+	//randomly generates the mass of each passenger, from the mass stream of a seed
+	//Accepts: the passenger count, the mass minimum and maximum, the seed of the run
+	public static int[] generateMassIndex(int passengerCount, int massMin, int massMax, long seed){
+		RandomStream rand = new RandomStream(RandomStream.deriveSeed(seed, MASSSTREAM));
+		int[] massIndex = new int[passengerCount];
+		for(int i = 0; i < passengerCount; i++){
+			massIndex[i] = rand.nextInt((massMax - massMin) + 1) + massMin;
+		}
+		return massIndex;
+	}
+	
+	//returns the seed of the plane's random stream, derived from the seed of the run (See: Plane.setSeed)
+	public static long planeSeed(long seed){
+		return RandomStream.deriveSeed(seed, PLANESTREAM);
+	}
+	
+	//checks all inputs are within range, throwing a IllegalArgumentException if not
+	//NOTE: The ranges match the checks made by the control panel
+	public void validate(){
+		if(velocity < 0) throw new IllegalArgumentException("Invalid velocity value");
+		if(passengerCount <= 0 || passengerCount > 132) throw new IllegalArgumentException("Invalid range for passenger count");
+		if(massMin > massMax || massMin <= 0 || massMax <= 0) throw new IllegalArgumentException("Invalid range for passenger mass");
+		if(survivalTime <= 0) throw new IllegalArgumentException("Invalid range for survival time");
+		if(tickThreads < 0) throw new IllegalArgumentException("Invalid range for tick threads");
+		if(planThreads < 0) throw new IllegalArgumentException("Invalid range for plan threads");
+		if(planLag < 1) throw new IllegalArgumentException("Invalid range for plan lag");
+		if(replanBudget < 0) throw new IllegalArgumentException("Invalid range for replan budget");
+		if(pathCache < 0) throw new IllegalArgumentException("Invalid range for path cache");
+		if(workingExits.length != Plane.EXITCOUNT) throw new IllegalArgumentException("There must be " + Plane.EXITCOUNT + " exits");
+	}
+	
+	//sets a input by name, such as "angle" and "30"
+	//NOTE: Exits are given as a string of 1s and 0s, one per exit (ex: "11110111")
+	public void set(String name, String value){
+		try{
+			if(name.equals("angle")) angle = Double.parseDouble(value);
+			else if(name.equals("velocity")) velocity = Double.parseDouble(value);
+			else if(name.equals("passengers")) passengerCount = Integer.parseInt(value);
+			else if(name.equals("massMin")) massMin = Integer.parseInt(value);
+			else if(name.equals("massMax")) massMax = Integer.parseInt(value);
+			else if(name.equals("fatalities")) accountForSurvival = parseBoolean(value);
+			else if(name.equals("communication")) communication = parseBoolean(value);
+			else if(name.equals("survivalTime")) survivalTime = Integer.parseInt(value);
+			else if(name.equals("planner")) planner = Planner.valueOf(value.toUpperCase());
+			else if(name.equals("exits")) workingExits = parseExits(value);
+			else if(name.equals("seed")) seed = Long.parseLong(value);
+			else if(name.equals("tickThreads")) tickThreads = Integer.parseInt(value);
+			else if(name.equals("planThreads")) planThreads = Integer.parseInt(value);
+			else if(name.equals("planLag")) planLag = Integer.parseInt(value);
+			else if(name.equals("replanBudget")) replanBudget = Integer.parseInt(value);
+			else if(name.equals("pathCache")) pathCache = Integer.parseInt(value);
+			else throw new IllegalArgumentException("Unknown input: " + name);
+		}catch(NumberFormatException e){
+			throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+		}
+	}
+	
+	//returns a copy of the scenario
+	public Scenario copy(){
+		Scenario copy = new Scenario();
+		copy.angle = angle;
+		copy.velocity = velocity;
+		copy.passengerCount = passengerCount;
+		copy.massMin = massMin;
+		copy.massMax = massMax;
+		copy.accountForSurvival = accountForSurvival;
+		copy.communication = communication;
+		copy.workingExits = workingExits.clone();
+		copy.survivalTime = survivalTime;
+		copy.planner = planner;
+		copy.tickThreads = tickThreads;
+		copy.planThreads = planThreads;
+		copy.planLag = planLag;
+		copy.replanBudget = replanBudget;
+		copy.pathCache = pathCache;
+		copy.seed = seed;
+		return copy;
+	}
+	
+	//parses a boolean, accepting true/false or 1/0
+	private static boolean parseBoolean(String value){
+		if(value.equals("1") || value.equalsIgnoreCase("true")) return true;
+		if(value.equals("0") || value.equalsIgnoreCase("false")) return false;
+		throw new NumberFormatException();
+	}
+	
+	//parses a string of 1s and 0s into the working exits
+	private static boolean[] parseExits(String value){
+		boolean[] exits = new boolean[value.length()];
+		for(int i = 0; i < exits.length; i++){
+			char c = value.charAt(i);
+			if(c != '0' && c != '1') throw new NumberFormatException();
+			exits[i] = c == '1';
+		}
+		return exits;
+	}
+	
+}
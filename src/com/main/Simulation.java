@@ -0,0 +1,158 @@
+package com.main;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.main.entity.Plane;
+import com.main.util.Scheduler;
+
+/**
+ * Simulation.java runs the simulation logic, without any window or rendering. <br>
+ * Used directly by headless runs (See: Headless.java), and by Main.java for runs with a window.
+ * <br>
+ * The simulation owns its clock: every update advances the simulation time by a fixed DT, no matter how fast updates are run.
+ * A run therefore gives the same results in a window at any updates per second, or headless as fast as possible.
+ * <br>
+ * All state of a run is held by its simulation and plane, so any number of simulations can run at the same time in one JVM,
+ * as long as each is updated by a single thread. Entities reach the clock through their plane (See: Plane.getSimulation)
+ * <br>
+ * Behaviour that waits for a time is scheduled as a event on the simulation's scheduler, fired at the start of the tick it is due (See: Scheduler.java)
+ */
+
+public class Simulation {
+
+	//the time since the simulation began (s)
+	//NOTE: Only advanced by update(), as ticks * DT
+	private double simulationTime = 0.0;
+	
+	//the number of updates in a second of simulation time
+	//NOTE: Matches the default updates per second of Main.java
+	public static final int TICKSPERSECOND = 60;
+	
+	//the simulation time passed in each update (s)
+	public static final double DT = 1.0 / TICKSPERSECOND;
+	
+	//the plane being simulated
+	private Plane plane;
+	
+	//the time at which survival is viable. When the time increases beyond this limit, the simulation will end
+	private int survivalTime;
+	
+	//the number of updates run
+	private long ticks = 0;
+	
+	//the seed the simulation was created with (See: Scenario.seed)
+	private long seed = 0;
+	
+	//the events waiting for their tick, such as passengers waking and exits opening
+	private Scheduler scheduler = new Scheduler();
+	
+	//the pool passengers are moved on, or null if passengers are updated one at a time (See: Plane.update)
+	private ForkJoinPool tickPool;
+	
+	//constructor. Accepts: the plane, the survival time
+	public Simulation(Plane plane, int survivalTime){
+		this.plane = plane;
+		this.survivalTime = survivalTime;
+		
+		//give the plane's entities access to the clock
+		plane.setSimulation(this);
+	}
+	
+	//creates a simulation from a scenario, generating the plane
+	//NOTE: All random values are drawn from the scenario seed
+	public static Simulation create(Scenario scenario){
+		
+		//check the scenario inputs
+		scenario.validate();
+		
+		//create the plane and generate the simulation
+		Plane plane = new Plane();
+		plane.setPlanner(scenario.planner);
+		plane.setSeed(Scenario.planeSeed(scenario.seed));
+		plane.setReplanBudget(scenario.replanBudget);
+		plane.setPlanThreads(scenario.planThreads);
+		plane.setPlanLag(scenario.planLag);
+		plane.setPathCache(scenario.pathCache);
+		plane.generateSimulation(scenario.passengerCount, scenario.getSurvivalChance(), scenario.accountForSurvival, 
+				scenario.getGForce(), scenario.generateMassIndex(), scenario.workingExits, scenario.communication, false);
+		
+		Simulation simulation = new Simulation(plane, scenario.survivalTime);
+		simulation.seed = scenario.seed;
+		
+		//move the passengers in parallel if requested
+		if(scenario.tickThreads > 0){
+			simulation.tickPool = new ForkJoinPool(scenario.tickThreads);
+			plane.setTickPool(simulation.tickPool);
+		}
+		return simulation;
+	}
+	
+	//fires the events due this tick, runs a single update, then advances the clock by DT
+	public void update(){
+		scheduler.runDue(ticks);
+		plane.update();
+		ticks++;
+		simulationTime = ticks * DT;
+	}
+	
+	//runs the simulation until it ends, as fast as possible
+	//returns the final stats
+	public SimulationResult run(){
+		try{
+			while(!isFinished()){
+				update();
+			}
+		}finally{
+			
+			//stop the threads of the tick pool and planning service
+			if(tickPool != null) tickPool.shutdown();
+			if(plane.getPlanningService() != null) plane.getPlanningService().shutdown();
+		}
+		return getResult();
+	}
+	
+	//returns if the simulation has ended. Ends when all passengers have escaped or the survival time has passed
+	public boolean isFinished(){
+		return plane.isFinished() || simulationTime > survivalTime;
+	}
+	
+	//returns the current stats
+	public SimulationResult getResult(){
+		return new SimulationResult(seed, plane.getPassengers().length, plane.escaped, simulationTime, ticks);
+	}
+	
+	//returns the time since the simulation began (s)
+	public double getSimulationTime(){
+		return simulationTime;
+	}
+	
+	//returns the number of updates run
+	public long getTicks(){
+		return ticks;
+	}
+	
+	//returns the time at the start of a tick (s)
+	//NOTE: Computed the same way as the simulation time, so comparisons against it match comparisons against the clock
+	public static double timeOf(long tick){
+		return tick * DT;
+	}
+	
+	//returns the first tick whose time is greater than a time (s)
+	public static long tickAfter(double time){
+		long tick = Math.max(0, (long) Math.floor(time * TICKSPERSECOND));
+		while(tick > 0 && timeOf(tick - 1) > time) tick--;
+		while(timeOf(tick) <= time) tick++;
+		return tick;
+	}
+	
+	//returns the scheduler of the simulation
+	public Scheduler getScheduler(){
+		return scheduler;
+	}
+	
+	//returns the plane
+	public Plane getPlane(){
+		return plane;
+	}
+	
+}
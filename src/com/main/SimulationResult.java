@@ -0,0 +1,80 @@
+package com.main;
+
+/**
+ * SimulationResult.java holds the final stats of a single simulation run.
+ * NOTE: Results are written as CSV rows, to be read by other programs
+ */
+
+public class SimulationResult {
+
+	//the columns of a CSV row
+	public static final String CSVHEADER = "seed,passengers,escaped,perished,time,ticks";
+	
+	//the seed of the run
+	private long seed;
+	
+	//the number of passengers on board
+	private int passengers;
+	
+	//the number of passengers who escaped
+	private int escaped;
+	
+	//the time elapsed when the simulation ended (s)
+	private double time;
+	
+	//the number of updates run
+	private long ticks;
+	
+	//constructor
+	public SimulationResult(long seed, int passengers, int escaped, double time, long ticks){
+		this.seed = seed;
+		this.passengers = passengers;
+		this.escaped = escaped;
+		this.time = time;
+		this.ticks = ticks;
+	}
+	
+	//returns the result as a CSV row (See: CSVHEADER)
+	public String toCsv(){
+		return seed + "," + passengers + "," + escaped + "," + getPerished() + "," + time + "," + ticks;
+	}
+	
+	//reads a result from a CSV row (See: CSVHEADER)
+	public static SimulationResult fromCsv(String row){
+		String[] values = row.split(",");
+		if(values.length != 6) throw new IllegalArgumentException("Invalid result row: " + row);
+		return new SimulationResult(Long.parseLong(values[0]), Integer.parseInt(values[1]), Integer.parseInt(values[2]), 
+				Double.parseDouble(values[4]), Long.parseLong(values[5]));
+	}
+	
+	//returns the seed of the run
+	public long getSeed(){
+		return seed;
+	}
+	
+	//returns the number of passengers on board
+	public int getPassengers(){
+		return passengers;
+	}
+	
+	//returns the number of passengers who escaped
+	public int getEscaped(){
+		return escaped;
+	}
+	
+	//returns the number of passengers who perished
+	public int getPerished(){
+		return passengers - escaped;
+	}
+	
+	//returns the time elapsed (s)
+	public double getTime(){
+		return time;
+	}
+	
+	//returns the number of updates run
+	public long getTicks(){
+		return ticks;
+	}
+	
+}
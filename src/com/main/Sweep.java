@@ -0,0 +1,231 @@
+package com.main;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.main.util.RandomStream;
+
+/**
+ * Sweep.java runs a simulation for every combination of a set of inputs, writing each result as soon as it finishes. <br>
+ * Inputs are given as name=values arguments (See: Scenario.set), where the values are either:
+ * <ul>
+ * 	<li> a list of values, such as exits=11111111,11110111
+ * 	<li> a range of numbers, as first:last:step, such as angle=0:90:15
+ * </ul>
+ * The extra inputs are: replicates (the runs of each combination, default 1), seed, workers (default: the number of cores)
+ * and output (the CSV file to write, default: the console). <br>
+ * Runs are scheduled on a work-stealing pool, so a worker that finishes its runs early takes runs from the others.
+ * Combinations are decoded from the run index when they are run, and results are written rather than kept,
+ * so memory does not grow with the size of the sweep. Rows are written in the order runs finish, with the run index first. <br>
+ * <br>
+ * Example: java com.main.Sweep angle=0:90:15 communication=0,1 exits=11111111,11110111 replicates=10 output=sweep.csv
+ */
+
+public class Sweep {
+
+	//the inputs being swept, and the values of each input
+	private List<String> names = new ArrayList<String>();
+	private List<String[]> values = new ArrayList<String[]>();
+
+	//the number of runs of each combination
+	private int replicates = 1;
+
+	//the seed each run's seed is derived from (See: MonteCarlo.replicateSeed)
+	private long seed = new RandomStream().nextLong();
+
+	//the number of runs at the same time
+	private int workers = Runtime.getRuntime().availableProcessors();
+
+	//the output of the sweep
+	private PrintWriter output;
+
+	//start of program
+	public static void main(String[] args){
+
+		//read the inputs
+		Sweep sweep = new Sweep();
+		String path = null;
+		try{
+			for(String arg : args){
+				int split = arg.indexOf('=');
+				if(split == -1) throw new IllegalArgumentException("Expected name=values: " + arg);
+				String name = arg.substring(0, split);
+				String value = arg.substring(split + 1);
+
+				if(name.equals("output")) path = value;
+				else sweep.set(name, value);
+			}
+		}catch(IllegalArgumentException e){
+			System.err.println(e.getMessage());
+			System.err.println("Inputs: angle velocity passengers massMin massMax fatalities communication survivalTime planner exits tickThreads planThreads planLag replanBudget pathCache seed replicates workers output");
+			System.exit(2);
+		}
+
+		//open the output, then run the sweep
+		try{
+			sweep.output = path == null ? new PrintWriter(System.out) : new PrintWriter(path);
+		}catch(FileNotFoundException e){
+			System.err.println("Cannot write " + path);
+			System.exit(2);
+		}
+		sweep.run();
+		sweep.output.close();
+	}
+
+	//sets a input of the sweep by name
+	public void set(String name, String value){
+		try{
+			if(name.equals("replicates")) replicates = Integer.parseInt(value);
+			else if(name.equals("workers")) workers = Integer.parseInt(value);
+			else if(name.equals("seed")) seed = Long.parseLong(value);
+			else{
+				String[] list = expand(value);
+
+				//check each value is a valid input
+				for(String v : list){
+					new Scenario().set(name, v);
+				}
+				names.add(name);
+				values.add(list);
+			}
+		}catch(NumberFormatException e){
+			throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+		}
+		if(replicates <= 0) throw new IllegalArgumentException("Invalid range for replicates");
+		if(workers <= 0) throw new IllegalArgumentException("Invalid range for workers");
+	}
+
+	//returns the total number of runs
+	public long getRunCount(){
+		long count = replicates;
+		for(String[] v : values){
+			count *= v.length;
+		}
+		return count;
+	}
+
+	//returns the inputs of a run, decoded from the run index
+	//NOTE: The last input changes fastest, then the one before it, and so on. Replicates of a combination are next to each other
+	public List<String> getInputs(long run){
+		String[] inputs = new String[names.size() + 1];
+		long index = run / replicates;
+		for(int i = names.size() - 1; i >= 0; i--){
+			String[] v = values.get(i);
+			inputs[i] = names.get(i) + "=" + v[(int) (index % v.length)];
+			index /= v.length;
+		}
+		inputs[names.size()] = "seed=" + MonteCarlo.replicateSeed(seed, run);
+		return Arrays.asList(inputs);
+	}
+
+	//runs every combination, writing each result as it finishes
+	public void run(){
+
+		//write the header
+		StringBuilder header = new StringBuilder("run");
+		for(String name : names){
+			header.append(',').append(name);
+		}
+		header.append(',').append(SimulationResult.CSVHEADER);
+		output.println(header);
+		output.flush();
+
+		//run all runs on the pool
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		try{
+			pool.invoke(new Runs(0, getRunCount()));
+		}finally{
+			pool.shutdown();
+		}
+	}
+
+	//runs a single run, writing its result
+	private void runOne(long run){
+		List<String> inputs = getInputs(run);
+		try{
+
+			//read the scenario of the run
+			Scenario scenario = new Scenario();
+			for(String input : inputs){
+				int split = input.indexOf('=');
+				scenario.set(input.substring(0, split), input.substring(split + 1));
+			}
+
+			//run the simulation on this thread
+			SimulationResult result = Simulation.create(scenario).run();
+
+			//write the row. The inputs are written without names, followed by the result
+			StringBuilder row = new StringBuilder().append(run);
+			for(int i = 0; i < names.size(); i++){
+				String input = inputs.get(i);
+				row.append(',').append(input.substring(input.indexOf('=') + 1));
+			}
+			row.append(',').append(result.toCsv());
+			synchronized(output){
+				output.println(row);
+				output.flush();
+			}
+
+		}catch(IllegalArgumentException e){
+
+			//a invalid combination, such as massMin above massMax, is skipped
+			System.err.println("Skipped run " + run + " " + inputs + ": " + e.getMessage());
+		}
+	}
+
+	//expands a list or range of values
+	private static String[] expand(String value){
+
+		//a list of values
+		if(value.indexOf(':') == -1) return value.split(",");
+
+		//a range of numbers. BigDecimal keeps steps such as 0.1 exact
+		String[] range = value.split(":");
+		if(range.length != 3) throw new NumberFormatException();
+		BigDecimal first = new BigDecimal(range[0]);
+		BigDecimal last = new BigDecimal(range[1]);
+		BigDecimal step = new BigDecimal(range[2]);
+		if(step.signum() <= 0 || last.compareTo(first) < 0) throw new NumberFormatException();
+
+		List<String> list = new ArrayList<String>();
+		for(BigDecimal v = first; v.compareTo(last) <= 0; v = v.add(step)){
+			list.add(v.toPlainString());
+		}
+		return list.toArray(new String[list.size()]);
+	}
+
+	/**
+	 * A range of runs, split in half until a single run is left. <br>
+	 * Idle pool threads steal the unsplit halves of other threads
+	 */
+	private class Runs extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		//the first run, and the run after the last
+		private long first, end;
+
+		//constructor
+		public Runs(long first, long end){
+			this.first = first;
+			this.end = end;
+		}
+
+		//runs the range
+		protected void compute(){
+			if(end - first == 1){
+				runOne(first);
+				return;
+			}
+			long middle = (first + end) >>> 1;
+			invokeAll(new Runs(first, middle), new Runs(middle, end));
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+package com.main.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.main.graphics.Graphic;
+import com.main.graphics.ImageLoader;
+import com.main.pathfinding.FlowField;
+import com.main.pathfinding.PathCache;
+import com.main.pathfinding.Planner;
+import com.main.pathfinding.Tile;
+import com.main.pathfinding.TileMapGenerator;
+import com.main.util.CollisionMap;
+import com.main.util.Vector2i;
+
+/**
+ * CabinLayout.java holds everything about the plane that does not change during a run: the plane graphic, the collidable pixels,
+ * the exit and seat positions, and the navigation data built over them. <br>
+ * A layout is loaded once per graphic and shared by every Plane.java instance, so runs at the same time only hold their own passengers and exits.
+ * <ul>
+ * 	<li> The tilemap is fitted to the root passenger, so there is one tilemap per tile alignment of the root passenger (at most Tile.size^2)
+ * 	<li> The flow fields of a tilemap are built the first time a FLOW run asks for them
+ * 	<li> The exits are the landmarks of each tilemap, whose distance tables are built the first time a LANDMARK run asks for them
+ * 	<li> The paths found by each planner over a tilemap are cached, so runs of a batch re-use the paths of earlier runs
+ * </ul>
+ * NOTE: A layout is never changed once loaded, other than adding navigation data, so it can be read from any number of threads. <br>
+ * Path planners hold the state of a search, so they are not part of the layout (See: Plane.setRoot)
+ */
+
+public class CabinLayout {
+
+	//the colour code of a collidable pixel
+	private static final int COLLIDABLECODE = 0xff000000;
+
+	//the colour code of a exit pixel
+	private static final int EXITCODE = 0xffffae00;
+
+	//the colour code of a seat pixel
+	private static final int SEATCODE = 0xff0000ff;
+
+	//the loaded layouts, by graphic path and position
+	private static final Map<String, CabinLayout> layouts = new HashMap<String, CabinLayout>();
+
+	//the plane graphic
+	private final Graphic graphic;
+
+	//the absolute position of the plane graphic
+	private final int x, y;
+
+	//Holds all collidablePixels on the plane graphic, as a bitset covering the graphic (See: CollisionMap.java)
+	private final CollisionMap collidablePixels;
+
+	//the absolute positions of the exits and seats found on the plane graphic
+	private final List<Vector2i> exitPositions;
+	private final List<Vector2i> seatPositions;
+
+	//holds the scanned plane graphic and tilemaps between runs (See: LayoutCache.java)
+	private final LayoutCache layoutCache;
+
+	//the tilemap of each tile alignment, and the flow fields of each tilemap
+	private final Map<Integer, TileMapGenerator> tileMaps = new HashMap<Integer, TileMapGenerator>();
+	private final Map<TileMapGenerator, FlowField[]> flowFields = new HashMap<TileMapGenerator, FlowField[]>();
+
+	//the path cache of each planner over each tilemap
+	private final Map<TileMapGenerator, Map<Planner, PathCache>> pathCaches = new HashMap<TileMapGenerator, Map<Planner, PathCache>>();
+
+	//returns the shared layout of a plane graphic, loading it on the first call
+	//Accepts: the path of the plane graphic, the absolute position of the graphic
+	public static CabinLayout get(String graphicPath, int x, int y){
+		synchronized(layouts){
+			String key = graphicPath + "@" + x + "," + y;
+			CabinLayout layout = layouts.get(key);
+			if(layout == null){
+				layout = new CabinLayout(graphicPath, x, y);
+				layouts.put(key, layout);
+			}
+			return layout;
+		}
+	}
+
+	//constructor. Loads the layout from the cache, or scans the graphic if it is not cached
+	private CabinLayout(String graphicPath, int x, int y){
+		this.x = x;
+		this.y = y;
+		graphic = ImageLoader.getImage(graphicPath);
+		layoutCache = new LayoutCache(graphicPath, Tile.size);
+
+		//try the cache first. The cached layout must be at the same position as the plane
+		if(layoutCache.loadLayout() && layoutCache.getCollision().getX() == x && layoutCache.getCollision().getY() == y){
+			collidablePixels = layoutCache.getCollision();
+			exitPositions = Collections.unmodifiableList(layoutCache.getExits());
+			seatPositions = Collections.unmodifiableList(layoutCache.getSeats());
+			return;
+		}
+
+		//scan the graphic
+		collidablePixels = generateCollision();
+		exitPositions = Collections.unmodifiableList(scanPixels(EXITCODE));
+		seatPositions = Collections.unmodifiableList(scanPixels(SEATCODE));
+
+		//cache the scanned layout for later runs
+		layoutCache.saveLayout(collidablePixels, exitPositions, seatPositions);
+	}
+
+	//Generates a map of pixels found on the plane graphic that are collidable
+	private CollisionMap generateCollision(){
+
+		//get graphic data
+		int w = graphic.getWidth();
+		int h = graphic.getHeight();
+		int[] pixels = graphic.getGraphic();
+
+		//create a new collision map covering the graphic
+		CollisionMap collision = new CollisionMap(x, y, w, h);
+
+		//loop through the y and x component of the graphic
+		for(int ya = 0; ya < h; ya++){
+			for(int xa = 0; xa < w; xa++){
+
+				//if the pixel is collidable, mark the absolute position in the collision map
+				if(pixels[xa + ya * w] == COLLIDABLECODE) collision.set(xa + x, ya + y);
+			}
+		}
+		return collision;
+	}
+
+	//interprets the graphic to find the absolute position of every pixel of a colour code
+	//NOTE: Exits are located using the colour code 0xffffae00, and seats using 0xff0000ff. See plane graphic for details
+	private List<Vector2i> scanPixels(int code){
+
+		//get graphic data
+		int w = graphic.getWidth();
+		int h = graphic.getHeight();
+		int[] pixels = graphic.getGraphic();
+
+		//loop through the y and x contents of the graphic, in the same order as the original scans
+		List<Vector2i> positions = new ArrayList<Vector2i>();
+		for(int ya = 0; ya < h; ya++){
+			for(int xa = 0; xa < w; xa++){
+				if(pixels[xa + ya * w] == code) positions.add(new Vector2i(xa + x, ya + y));
+			}
+		}
+		return positions;
+	}
+
+	//returns the tilemap fitted to a root passenger, generating it on the first call for the passenger's tile alignment
+	//Accepts: the absolute position of the root passenger
+	public synchronized TileMapGenerator getTileMap(int passengerX, int passengerY){
+
+		//the tilemap only depends on the position of the passenger within a tile
+		//NOTE: This holds as every seat lies within the bounds of the tilemap (See: TileMapGenerator.calculateExtremities)
+		Integer alignment = alignment(passengerX) + alignment(passengerY) * Tile.size;
+		TileMapGenerator tileMap = tileMaps.get(alignment);
+		if(tileMap == null){
+
+			//generate the map, re-using the tilemap cached by a earlier run if possible
+			tileMap = new TileMapGenerator(collidablePixels);
+			tileMap.generateMap(passengerX, passengerY, layoutCache);
+
+			//the exits are the goal of every path, so they are used as the landmarks of ALT heuristics (See: LandmarkStar.java)
+			tileMap.setLandmarks(exitPositions);
+			tileMaps.put(alignment, tileMap);
+		}
+		return tileMap;
+	}
+
+	//returns the position of a absolute coordinate within its tile
+	private static int alignment(int coordinate){
+		return ((coordinate % Tile.size) + Tile.size) % Tile.size;
+	}
+
+	//returns the flow field leading to each exit over a tilemap, indexed by exit id, building them on the first call
+	//NOTE: Pathfinding cost is paid once per exit and tilemap, rather than once per passenger per path
+	public synchronized FlowField[] getFlowFields(TileMapGenerator tileMap){
+		FlowField[] fields = flowFields.get(tileMap);
+		if(fields == null){
+			fields = new FlowField[exitPositions.size()];
+			for(int i = 0; i < fields.length; i++){
+				fields[i] = new FlowField(tileMap, exitPositions.get(i).getX(), exitPositions.get(i).getY());
+			}
+			flowFields.put(tileMap, fields);
+		}
+		return fields;
+	}
+
+	//returns the path cache of a planner over a tilemap, creating it on the first call (See: PathCache.java)
+	//Accepts: the tilemap, the planner, the largest number of paths held
+	//NOTE: A cache is replaced by a larger one if a run asks for more paths than it holds
+	public synchronized PathCache getPathCache(TileMapGenerator tileMap, Planner planner, int capacity){
+		Map<Planner, PathCache> caches = pathCaches.get(tileMap);
+		if(caches == null){
+			caches = new HashMap<Planner, PathCache>();
+			pathCaches.put(tileMap, caches);
+		}
+		PathCache cache = caches.get(planner);
+		if(cache == null || cache.getCapacity() < capacity){
+			cache = new PathCache(capacity);
+			caches.put(planner, cache);
+		}
+		return cache;
+	}
+
+	//returns the plane graphic
+	//NOTE: The graphic is shared, and must not be drawn on
+	public Graphic getGraphic(){
+		return graphic;
+	}
+
+	//returns the collidable pixels of the plane graphic
+	public CollisionMap getCollidablePixels(){
+		return collidablePixels;
+	}
+
+	//returns the absolute positions of the exits
+	public List<Vector2i> getExitPositions(){
+		return exitPositions;
+	}
+
+	//returns the absolute positions of the seats
+	public List<Vector2i> getSeatPositions(){
+		return seatPositions;
+	}
+
+}
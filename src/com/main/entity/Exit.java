@@ -2,11 +2,12 @@ package com.main.entity;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
-import com.main.Main;
+import com.main.Simulation;
 import com.main.graphics.Screen;
 import com.main.util.Deque;
+import com.main.util.RandomStream;
+import com.main.util.Scheduler;
 import com.main.util.Vector2i;
 
 /**
@@ -23,7 +24,7 @@ import com.main.util.Vector2i;
  * 	<li> React and re-path find with a <b>non-functioning door</b><br>
  * 	(In this event, each passenger will be removed from the back of the deque I.E the passenger who entered first will leave the broken exit last)<br>
  * </ol>
- * 
+ * The opening time is not checked each update. When it starts, the door schedules a event on the simulation's scheduler for the tick it ends (See: startTimer)
  * 
  */
 
@@ -53,19 +54,16 @@ public class Exit extends Entity{
 	//the minimum and maximum time extremities for the opening of the door
 	private int tMin = 5, tMax = 15;
 	
-	//the current passenger interacting with the door
-	private Passenger interactingPassenger;
-	
 	//a double-ended queue with all passengers withing the radius of the door
 	private Deque passengers = new Deque();
 	
 	private List<Passenger> visited = new ArrayList<Passenger>();
 	
-	//time 1 and time two
-	private double t1 = 0.0, t2 = 0.0;	
+	//holds if the opening time has passed, set by the event scheduled when the timer starts
+	private boolean opened = false;
 
-	//a new random object
-	private Random rand = new Random();
+	//a new random object, seeded by the plane
+	private RandomStream rand;
 	
 	//constructor
 	public Exit(int x, int y, int id, boolean functioning, Plane plane){
@@ -74,6 +72,7 @@ public class Exit extends Entity{
 		this.id = id;
 		this.functioning = functioning;
 		this.plane = plane;
+		this.rand = plane.createRandom();
 		
 		
 		//randomly generate a given time for the door to be opened
@@ -89,8 +88,8 @@ public class Exit extends Entity{
 		//test if any passengers have entered the exits radius
 		testForPassengers();
 		
-		//if the time difference
-		if(t2 - t1 > timeToOpen){
+		//if the opening time has passed
+		if(opened){
 			
 			//timeEnded becomes true when the timer ends
 			timeEnded = true;
@@ -125,16 +124,43 @@ public class Exit extends Entity{
 			}
 						
 		}			
+	}
+	
+	//starts the opening timer, scheduling the door to open once the time to open has passed
+	//NOTE: The door opens at the first tick where the time of the tick before, less the start time, is greater than the time to open.
+	//This is the tick the timer was checked to have ended at when it was checked each update
+	private void startTimer(){
+		
+		//get the start tick and time
+		Simulation simulation = plane.getSimulation();
+		long start = simulation.getTicks();
+		double t1 = Simulation.timeOf(start);
 		
-		//if there is a interacting passenger, reset the t2 every update
-		if(interactingPassenger != null) t2 = Main.simulationTime;
+		//find the first tick where the time of the tick before is more than the time to open after the start
+		long tick = Simulation.tickAfter(t1 + timeToOpen) + 1;
+		while(tick > start + 1 && Simulation.timeOf(tick - 2) - t1 > timeToOpen) tick--;
+		while(!(Simulation.timeOf(tick - 1) - t1 > timeToOpen)) tick++;
+		
+		//schedule the door to open
+		simulation.getScheduler().schedule(tick, new Scheduler.Event(){
+			public void fire(long tick){
+				opened = true;
+			}
+		});
 	}
 	
 	//test if passengers are in the radius of the exit
+	//NOTE: Only living passengers still on the plane are tested, so a passenger who escaped through a nearby exit is not queued again
 	private void testForPassengers(){
 		
-		//loop through each passengers
-		for(Passenger p : plane.getPassengers()){
+		//loop through the living passengers in the grid cells around the exit (See: Plane.findNeighbours)
+		Passenger[] all = plane.getPassengers();
+		double searched = radius;
+		int count = plane.findNeighbours(pos, searched);
+		int[] neighbours = plane.getNeighbours();
+		for(int i = 0; i < count; i++){
+			int id = neighbours[i];
+			Passenger p = all[id];
 			
 			//if the passenger is within range of the radius, continue
 			if(p.getPos().getDistance(pos) <= radius){
@@ -167,6 +193,14 @@ public class Exit extends Entity{
 					
 				}
 			}
+			
+			//adding a passenger can grow the radius past the searched cells. If so, search again and continue after the current passenger
+			if(radius > searched){
+				searched = radius;
+				count = plane.findNeighbours(pos, searched);
+				i = -1;
+				while(i + 1 < count && neighbours[i + 1] <= id) i++;
+			}
 		}
 		
 	}
@@ -177,11 +211,8 @@ public class Exit extends Entity{
 		//if the passengers arraylist is empty
 		if(passengers.isEmpty()){
 			
-			//set the currently interacting passenger to the current passenger
-			interactingPassenger = p;
-			
-			//set the time 1 to the current time, effectively starting the count-down timer
-			t1 = Main.simulationTime;
+			//start the count-down timer
+			startTimer();
 		}
 		
 		//add the passenger to the rear of the deque (end of the line)
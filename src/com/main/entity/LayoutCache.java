@@ -0,0 +1,287 @@
+package com.main.entity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.main.util.CollisionMap;
+import com.main.util.Vector2i;
+
+/**
+ * LayoutCache.java stores the data scanned from the plane graphic on disk, so later runs can skip the scan. <br>
+ * Files are keyed by a hash of the graphic and the tile size, so a changed graphic is never read from a old file.
+ * <ul>
+ * 	<li> The layout file holds the collision map, the exit positions and the seat positions
+ * 	<li> A grid file holds the collidable tiles of a tilemap. As the tilemap is fitted to the root passenger, there is one per tilemap origin
+ * </ul>
+ * Files are read through a memory-mapped buffer. A missing or unreadable file is treated as a cache miss.
+ * NOTE: The cache directory is set with the "simulation.cache" system property (default: ./cache)
+ */
+
+public class LayoutCache {
+
+	//the directory all cache files are kept in
+	public static final String DIRECTORY = System.getProperty("simulation.cache", "cache");
+
+	//marks the start of every cache file, and the version of the file format
+	private static final int MAGIC = 0x504c4e45;
+	private static final int VERSION = 1;
+
+	//the directory of the cache
+	private File directory;
+
+	//the key of the cache files, made from the graphic hash and the tile size
+	private String key;
+
+	//the tile size the cache is for
+	private int tileSize;
+
+	//the loaded layout
+	private CollisionMap collision;
+	private List<Vector2i> exits;
+	private List<Vector2i> seats;
+
+	//constructor. Accepts: the path of the plane graphic, the tile size
+	public LayoutCache(String graphicPath, int tileSize){
+		this.tileSize = tileSize;
+		directory = new File(DIRECTORY);
+		key = hash(graphicPath) + "_" + tileSize;
+	}
+
+	//loads the layout file. Returns true if the layout was found
+	public boolean loadLayout(){
+
+		//map the file
+		MappedByteBuffer buffer = map(new File(directory, key + ".layout"));
+		if(buffer == null) return false;
+
+		try{
+
+			//read the collision map
+			int x = buffer.getInt();
+			int y = buffer.getInt();
+			int w = buffer.getInt();
+			int h = buffer.getInt();
+			long[] bits = new long[buffer.getInt()];
+			buffer.asLongBuffer().get(bits);
+			buffer.position(buffer.position() + bits.length * 8);
+			collision = new CollisionMap(x, y, w, h, bits);
+
+			//read the exits and seats
+			exits = readPositions(buffer);
+			seats = readPositions(buffer);
+			return true;
+
+		}catch(RuntimeException e){
+
+			//a damaged file is a cache miss
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	//saves the layout file. Accepts: the collision map, the exit positions, the seat positions
+	public void saveLayout(CollisionMap collision, List<Vector2i> exits, List<Vector2i> seats){
+		File file = new File(directory, key + ".layout");
+		try{
+			File temp = createTemp();
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try{
+				writeHeader(out);
+
+				//write the collision map
+				out.writeInt(collision.getX());
+				out.writeInt(collision.getY());
+				out.writeInt(collision.getWidth());
+				out.writeInt(collision.getHeight());
+				long[] bits = collision.getBits();
+				out.writeInt(bits.length);
+				for(long word : bits){
+					out.writeLong(word);
+				}
+
+				//write the exits and seats
+				writePositions(out, exits);
+				writePositions(out, seats);
+			}finally{
+				out.close();
+			}
+			commit(temp, file);
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+
+	//loads the collidable tiles of a tilemap. Returns null if the grid was not found
+	//Accepts: the tilemap origin and the width and height of the tilemap (in TILE precision)
+	public boolean[] loadGrid(int xmin, int ymin, int width, int height){
+
+		//map the file
+		MappedByteBuffer buffer = map(gridFile(xmin, ymin));
+		if(buffer == null) return null;
+
+		try{
+
+			//the grid must match the requested tilemap
+			if(buffer.getInt() != xmin || buffer.getInt() != ymin || buffer.getInt() != width || buffer.getInt() != height) return null;
+
+			//read a byte per tile
+			boolean[] collidable = new boolean[width * height];
+			for(int i = 0; i < collidable.length; i++){
+				collidable[i] = buffer.get() != 0;
+			}
+			return collidable;
+
+		}catch(RuntimeException e){
+
+			//a damaged file is a cache miss
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	//saves the collidable tiles of a tilemap
+	//Accepts: the tilemap origin, the width and height of the tilemap (in TILE precision), the collidable tiles
+	public void saveGrid(int xmin, int ymin, int width, int height, boolean[] collidable){
+		try{
+			File temp = createTemp();
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try{
+				writeHeader(out);
+				out.writeInt(xmin);
+				out.writeInt(ymin);
+				out.writeInt(width);
+				out.writeInt(height);
+				for(boolean c : collidable){
+					out.writeByte(c ? 1 : 0);
+				}
+			}finally{
+				out.close();
+			}
+			commit(temp, gridFile(xmin, ymin));
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+
+	//returns the loaded collision map
+	public CollisionMap getCollision(){
+		return collision;
+	}
+
+	//returns the loaded exit positions
+	public List<Vector2i> getExits(){
+		return exits;
+	}
+
+	//returns the loaded seat positions
+	public List<Vector2i> getSeats(){
+		return seats;
+	}
+
+	//returns the grid file for a tilemap origin
+	private File gridFile(int xmin, int ymin){
+		return new File(directory, key + "_" + xmin + "_" + ymin + ".grid");
+	}
+
+	//maps a cache file into memory, checking the header. Returns null if the file cannot be used
+	private MappedByteBuffer map(File file){
+		if(!file.isFile()) return null;
+
+		try(RandomAccessFile in = new RandomAccessFile(file, "r")){
+
+			//map the whole file. The mapping stays valid after the file is closed
+			FileChannel channel = in.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			//check the header
+			if(buffer.remaining() < 12) return null;
+			if(buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != tileSize) return null;
+			return buffer;
+
+		}catch(IOException e){
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	//writes the header of a cache file
+	private void writeHeader(DataOutputStream out) throws IOException{
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(tileSize);
+	}
+
+	//reads a list of positions
+	private List<Vector2i> readPositions(MappedByteBuffer buffer){
+		int count = buffer.getInt();
+		List<Vector2i> positions = new ArrayList<Vector2i>(count);
+		for(int i = 0; i < count; i++){
+			int packed = buffer.getInt();
+			positions.add(new Vector2i(Vector2i.unpackX(packed), Vector2i.unpackY(packed)));
+		}
+		return positions;
+	}
+
+	//writes a list of positions
+	private void writePositions(DataOutputStream out, List<Vector2i> positions) throws IOException{
+		out.writeInt(positions.size());
+		for(Vector2i pos : positions){
+			out.writeInt(Vector2i.pack(pos.getX(), pos.getY()));
+		}
+	}
+
+	//creates a temporary file in the cache directory
+	private File createTemp() throws IOException{
+		if(!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create cache directory " + directory);
+		return File.createTempFile(key, ".tmp", directory);
+	}
+
+	//moves a finished temporary file into place
+	//NOTE: The file is written fully before it is moved, so runs starting at the same time never read a partial file
+	private void commit(File temp, File file) throws IOException{
+		try{
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch(IOException e){
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	//returns a hex hash of a resource
+	private static String hash(String path){
+		try(InputStream in = LayoutCache.class.getResourceAsStream(path)){
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+			//digest the resource
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) != -1){
+				digest.update(buffer, 0, read);
+			}
+
+			//convert the first 8 bytes to hex
+			StringBuilder hex = new StringBuilder();
+			byte[] bytes = digest.digest();
+			for(int i = 0; i < 8; i++){
+				hex.append(String.format("%02x", bytes[i]));
+			}
+			return hex.toString();
+
+		}catch(IOException | NoSuchAlgorithmException e){
+			throw new RuntimeException("Cannot hash " + path, e);
+		}
+	}
+
+}
@@ -1,25 +1,32 @@
 package com.main.entity;
 
-import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-import com.main.Main;
+import com.main.Simulation;
 import com.main.graphics.Graphic;
 import com.main.graphics.ImageLoader;
 import com.main.graphics.Screen;
-import com.main.pathfinding.Star;
+import com.main.pathfinding.FlowField;
+import com.main.pathfinding.PathFinder;
+import com.main.pathfinding.Planner;
+import com.main.pathfinding.PlanningService;
 import com.main.pathfinding.Tile;
 import com.main.pathfinding.TileMapGenerator;
 import com.main.util.Node;
+import com.main.util.RandomStream;
+import com.main.util.Scheduler;
+import com.main.util.SpatialGrid;
 import com.main.util.Vector2i;
 
 /**
  * Handles all movement and AI characteristics of a passenger. <br>
+ * The position, speed, mass, flags and collision box of a passenger are kept in the plane's PassengerStore.java, at the passenger's id. <br>
  * The Passenger has these given characteristics:
  * <li> Mass <br>
  * <li> Survival percentage <br>
@@ -29,8 +36,8 @@ import com.main.util.Vector2i;
 
 public class Passenger extends Entity{
 
-	//x, y position of the passenger
-	private double x, y;
+	//the store holding the position, speed, mass, flags and collision box of the passenger (See: PassengerStore.java)
+	private PassengerStore store;
 	
 	//the vector position of the passenger
 	private Vector2i position;
@@ -41,12 +48,6 @@ public class Passenger extends Entity{
 	//holds the array index of where this instance is held in the passenger array
 	private int id;
 	
-	//speed at which a passenger can move
-	private double speed;
-	
-	//the mass of the given passenger
-	private int mass;
-
 	//passenger graphic
 	private Graphic graphic;
 	
@@ -56,12 +57,9 @@ public class Passenger extends Entity{
 	//holds the deathGraphic
 	private Graphic deathGraphic; 
 	
-	//creates a new bounding collision Rectangle
-	private Rectangle collision;
-		
-	//holds if the passenger is alive or not
-	private boolean alive = true;
-		
+	//the graphic rendered at each step of the path
+	private Graphic pathGraphic;
+	
 	//the initial response for a passenger
 	private double initialResponse = 0.0;
 			
@@ -73,18 +71,30 @@ public class Passenger extends Entity{
 	
 	//generator object used to generate a tile map
 	private TileMapGenerator generator;
-		
-	//array to hold the tilemap for the given passenger
-	private Tile[] tileMap;
 	
-	//instance of Star.java, giving passengers path-finding abilities
-	private Star aStar;
+	//the calculated path for the passenger to take, from the exit back to the first step, as packed coordinates (See: Vector2i.pack)
+	//NOTE: The array is re-used between paths, only growing when a longer path is found
+	private int[] path = new int[64];
+	
+	//the number of steps remaining in the path
+	private int pathSize = 0;
+	
+	//the path being searched for in the background, or null if no search is pending (See: PlanningService.java)
+	private Future<int[]> plannedPath;
 	
-	//the calculated path for the passenger to take
-	List<Tile> path = new ArrayList<Tile>();
+	//the position searched from, then each step taken on the old path while the search is pending, as packed coordinates
+	//NOTE: Used to lead the passenger from where they are back onto the new path once it is applied (See: applyPlannedPath)
+	private int[] trail = new int[8];
+	private int trailSize = 0;
 	
-	//the current player tile target
-	private Tile target = null;
+	//the number of trail entries held when the search was submitted
+	private int trailStart = 0;
+	
+	//the current player tile target, as packed coordinates
+	private int target = NOTARGET;
+	
+	//the target value used when the passenger has no target
+	private static final int NOTARGET = -1;
 	
 	//holds the possible exits a given passenger can use to escape
 	private ArrayList<Exit> possibleExits;
@@ -92,15 +102,9 @@ public class Passenger extends Entity{
 	//the current exit the Passenger is focused on
 	private Exit currentExit;
 	
-	//holds if the passenger is currently exiting the aircraft
-	private boolean exiting = false;
-
 	//holds all exits the passenger will shout to others
 	private List<Exit> instructedExits = new ArrayList<Exit>();
 	
-	//if the passenger is waiting in a door Queue
-	private boolean inExitQueue = false;
-	
 	//the maximum gForce a passenger can take
 	public static final double DEATHLYGFORCE = 10.2;
 	
@@ -117,46 +121,46 @@ public class Passenger extends Entity{
 	//5 different colours to represent and differentiate the passengers
 	private int[] colours = {0xffe61e1e, 0xff1eff00, 0xff9856f3, 0xff19dd19, 0xff29330b};
 	
-	//create new random instance
-	private Random rand = new Random();
+	//create new random stream, split from the plane's stream
+	private RandomStream rand;
 	
 	
 	//constructor for passenger
 	public Passenger(double x, double y, int mass, boolean alive, Plane plane, int id){
 		
+		//set the plane instance and random instance
+		this.plane = plane;
+		this.rand = plane.createRandom();
+		
+		//set the passenger id and store
+		this.id = id;
+		this.store = plane.getPassengerStore();
+		
 		//set the x and y position
-		this.x = x;
-		this.y = y;
+		store.x[id] = x;
+		store.y[id] = y;
 		
 		//set the mass of the player
-		this.mass = mass;
+		store.mass[id] = mass;
 		
 		//set if the passenger is initially alive
-		this.alive = alive;
-				
-		//set the plane instance
-		this.plane = plane;
-		
-		//set the passenger id
-		this.id = id;
+		store.set(id, PassengerStore.ALIVE, alive);
 		
 		//Instantiate the vector position
 		position = new Vector2i((int) x, (int) y);	
 		
 		//create a new collision box
-		this.collision = new Rectangle((int)x, (int)y, width, height);
+		store.boxX[id] = (int) x;
+		store.boxY[id] = (int) y;
 		
 		//generate the passenger graphic
 		generateGraphic();
 		
 		//generate a new pathfinding tilemap. Following tileMap generation, a new instance of Star.java is created
 		generateTileMap();	
-						
-		//generate a new A* pathfinding instance
-		aStar = new Star(generator);
 		
 		//calculate the speed of the passenger
-		speed = calculateSpeed();
+		store.speed[id] = calculateSpeed();
 		
 		//set the minimum and maximums for a shout, and then generate the shout
 		int min = 10, max = 20;
@@ -176,42 +180,91 @@ public class Passenger extends Entity{
 	
 	
 	//Develops a path for the passenger to take, using A*. Accepts: destination vector2i
-	//See: (Star.java)
+	//See: (Star.java, GridStar.java, JumpStar.java)
 	private void findPath(Vector2i dest){
 		
 		//intitially clear the previous path
-		path.clear();
+		pathSize = 0;
 		
 		//fits the destination to the same multiple as the Passenger
 		position.fitToMultiple(dest, 4);
+		updatePositionGrid();
+		
+		//with flow fields, follow the field of the current exit instead of searching
+		if(plane.getPlanner() == Planner.FLOW){
+			
+			//get the field and the number of steps to the exit
+			FlowField field = plane.getFlowField(currentExit.getId());
+			int steps = field.getSteps(position.getX(), position.getY());
+			
+			//if the exit cannot be reached, kill the passenger
+			if(steps == -1){
+				pathNotFound();
+				return;
+			}
+			
+			//trace the field into the passengers path
+			ensurePathCapacity(steps);
+			pathSize = field.trace(position.getX(), position.getY(), path);
+			return;
+		}
+		
+		//find a new path using the planner selected for the run
+		PathFinder pathFinder = plane.getPathFinder();
+		if(pathFinder != null){
+			
+			//find a new path from the current passenger position to the destination
+			int length = pathFinder.findPath(position.getX(), position.getY(), dest.getX(), dest.getY());
 			
+			//if no path could be found, kill the passenger
+			if(length == -1){
+				pathNotFound();
+				return;
+			}
+			
+			//copy the packed path into the passengers path
+			ensurePathCapacity(length);
+			System.arraycopy(pathFinder.getPath(), 0, path, 0, length);
+			pathSize = length;
+			return;
+		}
+		
 		//find a new path from the current passenger position to the destination
-		List<Node> path = aStar.findPath(position, dest);
+		List<Node> path = plane.getStar().findPath(position, dest);
 		
 		//if no path could be found, continue
 		if(path == null){
-			
-			//state a path could not be found ( :{ ), and then kill the passenger
-			System.out.println("------path cannot be found---------");
-			alive = false;
+			pathNotFound();
 			return;
 		}
 		
 		//loop the path size
+		ensurePathCapacity(path.size());
 		for(int i = 0; i < path.size(); i++){
 			
-			//get each node at the specified index
-			Node node = path.get(i);
-			
-			//get the Vector2i related to the given node
-			Vector2i tilePath = node.tile;
+			//get the Vector2i related to the node at the specified index
+			Vector2i tilePath = path.get(i).tile;
 			
-			//create a new tile with this data and add the tile to the path list
-			Tile tile = new Tile(tilePath.getX(), tilePath.getY());
-			this.path.add(tile);
+			//pack the tile position into the path
+			this.path[pathSize++] = Vector2i.pack(tilePath.getX(), tilePath.getY());
 		}
 	}
 	
+	//handles when no path to the exit can be found
+	private void pathNotFound(){
+		
+		//state a path could not be found ( :{ ), and then kill the passenger
+		//NOTE: Printed to the error stream, so the stats of a headless run are the only standard output
+		System.err.println("------path cannot be found---------");
+		store.set(id, PassengerStore.ALIVE, false);
+		plane.getPositionGrid().remove(id);
+	}
+	
+	//grows the path array if it cannot hold the given number of steps
+	private void ensurePathCapacity(int length){
+		if(path.length < length) path = new int[Math.max(length, path.length * 2)];
+	}
+	
 	//creates a sorted list of possible exit targets, from closest in distance to furthest away.
 	private void generateExitTarget(){
 				
@@ -231,7 +284,7 @@ public class Passenger extends Entity{
 	private double calculateSpeed(){
 		
 		//set the speed of the player
-		double speed = (1.0 - (plane.getGForce()/DEATHLYGFORCE)) - (mass/BASEMASS-1);
+		double speed = (1.0 - (plane.getGForce()/DEATHLYGFORCE)) - (store.mass[id]/BASEMASS-1);
 		
 		//if the calculated speed is less the minimum, then re-set the speed to be the min
 		if(speed <= MINSPEED){
@@ -260,7 +313,6 @@ public class Passenger extends Entity{
 	private void generateGraphic(){
 		
 		//generate a random colour
-		Random rand = new Random();
 		int colour = colours[rand.nextInt(5)];
 		
 		//create a new pixel array buffer
@@ -278,6 +330,11 @@ public class Passenger extends Entity{
 		//create a new graphic with the generated data
 		graphic = new Graphic(width, height, pixels);
 		
+		//create a tile sized graphic with the same colour, used to render the path
+		int[] pathPixels = new int[Tile.size * Tile.size];
+		Arrays.fill(pathPixels, colour);
+		pathGraphic = new Graphic(Tile.size, Tile.size, pathPixels);
+		
 		//get the death graphic
 		deathGraphic = ImageLoader.getImage("/death.png");
 	}
@@ -294,26 +351,22 @@ public class Passenger extends Entity{
 			
 			//fit the passengers vecorized position to the root passenger
 			position.fitToMultiple(root.getPos(), 4);
+			updatePositionGrid();
 			
 			//reset the x and y
-			this.x = position.getX();
-			this.y = position.getY();
+			store.x[id] = position.getX();
+			store.y[id] = position.getY();
 			
 			//get the root tileMap and return out of the function
 			generator = plane.getRoot();
-			tileMap = generator.getMap();
 			
 			return;
 		}
 		
 		//-- if root passenger:
 		
-		//create a new TileMapGenerator object
-		generator = new TileMapGenerator();
-		
-		//generate the map and pull tile data plus width and height
-		generator.generateMap((int) x, (int) y);
-		tileMap = generator.getMap();
+		//get the tilemap fitted to the root passenger from the shared layout. It is only generated by the first plane with this alignment
+		generator = plane.getLayout().getTileMap((int) store.x[id], (int) store.y[id]);
 		
 		//set the root tilemap in the Plane.java class (See: Plane.java)
 		plane.setRoot(generator);
@@ -345,11 +398,12 @@ public class Passenger extends Entity{
 		
 		//calculates the translational shift applied.
 		//NOTE: No absolute is applied to difference, therefore xdiff and ydiff are vector values, with magnitude and direction.
-		double xdiff = xa - x;
-		double ydiff = ya - y;
+		double xdiff = xa - store.x[id];
+		double ydiff = ya - store.y[id];
+		double speed = store.speed[id];
 		
 		//if the player is not at the target coordinate
-		if(x != xa || y != ya){
+		if(store.x[id] != xa || store.y[id] != ya){
 			
 			//set the x and y move to the distance
 			//NOTE: Also holds the translational shift
@@ -366,8 +420,8 @@ public class Passenger extends Entity{
 			if(collisionCount > rand.nextInt(60)){
 				
 				//move the passenger normally, ignoring collision
-				x+=xmove;
-				y+=ymove;
+				store.x[id]+=xmove;
+				store.y[id]+=ymove;
 				collisionCount = 0;
 				return;
 			}
@@ -375,12 +429,12 @@ public class Passenger extends Entity{
 			//---check collision on the two separate axisis---
 			
 			//if no collison is found, move in the x axis
-			if(!collision(xmove, 0)) x+=xmove;
+			if(!collision(xmove, 0)) store.x[id]+=xmove;
 			//if collision is found, add to the collision counter
 			else collisionCount++;
 			
 			//repeat for y component
-			if(!collision(0, ymove)) y+=ymove;
+			if(!collision(0, ymove)) store.y[id]+=ymove;
 			else collisionCount++;
 		}
 		
@@ -391,18 +445,17 @@ public class Passenger extends Entity{
 	private boolean collision(double xa, double ya){
 		
 		//determine the absolute x and y by adding the shifts
-		int rectX = (int) (x + xa), rectY = (int) (y + ya); 
+		int rectX = (int) (store.x[id] + xa), rectY = (int) (store.y[id] + ya); 
 		
-		//set col to the location calculated
-		Rectangle col = collision;
-		col.setLocation(rectX, rectY);
+		//set the collision box to the location calculated
+		setCollisionLocation(rectX, rectY);
 		
 		//get the result from the testCollision function
-		boolean result = testCollision(col);
+		boolean result = testCollision(rectX, rectY);
 		
 		//if no collision has occurred, set the collision box to the shifted coordinate points
 		if(!result){
-			collision.setLocation(rectX, rectY);
+			setCollisionLocation(rectX, rectY);
 		}
 		
 		//return the result from the collision
@@ -411,24 +464,60 @@ public class Passenger extends Entity{
 	}
 
 	//Handles the specific collision between two bodies by checking if their collision boxes overlap
-	private boolean testCollision(Rectangle collision){
+	//NOTE: Only passengers in the collision grid cells around the box are checked (See: SpatialGrid.java)
+	//Accepts: the absolute position of the box
+	private boolean testCollision(int bx, int by){
 		
-		//loop through all passengers
-		for(Passenger passenger : plane.getPassengers()){
-			
-			//if the current passenger is this, then continue
-			if(passenger.getID() == getID()) continue;
-			
-			//if the two passengers colide, then return a boolean true for collision
-			if(passenger.getCollision().intersects(collision)){
-				return true;
+		//get the grid
+		SpatialGrid grid = plane.getCollisionGrid();
+		
+		//get the boxes of the passengers. While passengers move in parallel, the boxes are read from the snapshot taken before the tick (See: Plane.update)
+		int[] boxX = plane.isMovingInParallel() ? plane.getSnapshotX() : store.boxX;
+		int[] boxY = plane.isMovingInParallel() ? plane.getSnapshotY() : store.boxY;
+		
+		//a overlapping box must have its position less than a box size away, so only the cells in that range are checked
+		int c0 = grid.column(bx - width + 1), c1 = grid.column(bx + width - 1);
+		int r0 = grid.row(by - height + 1), r1 = grid.row(by + height - 1);
+		
+		//loop through the cells
+		for(int r = r0; r <= r1; r++){
+			for(int c = c0; c <= c1; c++){
+				
+				//loop through all passengers in the cell
+				int[] cell = grid.getCell(c, r);
+				int count = grid.getCount(c, r);
+				for(int i = 0; i < count; i++){
+					int other = cell[i];
+					
+					//if the current passenger is this, then continue
+					if(other == id) continue;
+					
+					//if the two passengers colide, then return a boolean true for collision
+					//NOTE: All boxes are the same size
+					if(boxX[other] < bx + width && bx < boxX[other] + width && boxY[other] < by + height && by < boxY[other] + height){
+						return true;
+					}
+				}
 			}
-			
 		}
 		
 		//return false for no collision
 		return false;
 	}
+	
+	//keeps the passengers place in the position grid up to date with the vector position
+	//NOTE: Passengers not in the grid, such as passengers still being created, are ignored
+	private void updatePositionGrid(){
+		plane.getPositionGrid().move(id, position.getX(), position.getY());
+	}
+	
+	//moves the collision box, keeping the passengers place in the collision grid up to date
+	//NOTE: While passengers move in parallel, the grid is only moved once every passenger has moved (See: updateInteractions)
+	private void setCollisionLocation(int x, int y){
+		store.boxX[id] = x;
+		store.boxY[id] = y;
+		if(!plane.isMovingInParallel()) plane.getCollisionGrid().move(id, x, y);
+	}
 		
 
 	//handles moving along the pre-calculated A* path.
@@ -436,24 +525,31 @@ public class Passenger extends Entity{
 	private void pathMove(){
 		
 		//if the path is empty, then return out of the function
-		if(path.isEmpty()) return;
+		if(pathSize == 0) return;
 
-		//if the current target is null continue
-		if(target == null){
+		//if there is no current target continue
+		if(target == NOTARGET){
 			
 			//set the target to the closest node to the passenger
-			target = path.remove(path.size()-1);
+			target = path[--pathSize];
+			
+			//keep the steps taken while a new path is being searched for
+			if(plannedPath != null) addTrail(target);
 		}else{
 			
-			//if the current vector passenger position is equal to the target, then set the target
-			//to null to allow for a new one to be cached
-			if(position.getX() == target.getX() && position.getY() == target.getY()){
-				target = null;
+			//get the target x and y
+			int targetX = Vector2i.unpackX(target);
+			int targetY = Vector2i.unpackY(target);
+			
+			//if the current vector passenger position is equal to the target, then clear
+			//the target to allow for a new one to be cached
+			if(position.getX() == targetX && position.getY() == targetY){
+				target = NOTARGET;
 				return;
 			}
 			
 			//move the passenger to the specified target
-			move(target.getX(), target.getY());
+			move(targetX, targetY);
 			
 		}
 	
@@ -466,10 +562,10 @@ public class Passenger extends Entity{
 		
 		//set being in the queue back to false, allowing for the passenger
 		//to continue to pathfind
-		inExitQueue = false;
+		store.set(id, PassengerStore.INEXITQUEUE, false);
 		
 		//set the exiting boolean to true, allowing the passenger to exit
-		exiting = true;
+		store.set(id, PassengerStore.EXITING, true);
 	}
 	
 	//handles the event of a non-functioning exit
@@ -482,12 +578,11 @@ public class Passenger extends Entity{
 		//remove the current exit from the total list
 		possibleExits.remove(currentExit);
 		
-		//generate a new exit target and find a new path
-		generateExitTarget();
-		findPath(currentExit.getPosition());
+		//queue the passenger to find a path to a new exit target (See: replan)
+		plane.requestReplan(id);
 		
 		//set being in a exit queue to false
-		inExitQueue = false;
+		store.set(id, PassengerStore.INEXITQUEUE, false);
 	}
 	
 	//handles when another passenger instructs a specific exit is not functioning
@@ -495,7 +590,7 @@ public class Passenger extends Entity{
 	public void instructedOfBrokenExit(Exit exit){
 		
 		//if the path size is down to one, then ignore the shouts
-		if(path.size() == 1) return;
+		if(pathSize == 1) return;
 		
 		//if the passenger has already been instructed about the exit, ignore
 		if(!instructedExits.contains(exit)){
@@ -503,9 +598,8 @@ public class Passenger extends Entity{
 			//remove the exit from the possible exits
 			possibleExits.remove(exit);
 			
-			//generate a new path 
-			generateExitTarget();
-			findPath(currentExit.getPosition());
+			//queue the passenger for a new path, found once all passengers have shouted (See: replan)
+			plane.requestReplan(id);
 			
 			//add the broken exit to the passengers instructedExits, allowing them in-tern to tell others
 			instructedExits.add(exit);
@@ -513,6 +607,115 @@ public class Passenger extends Entity{
 		
 	}
 
+	//generates a new exit target from the possible exits, and finds a path to it
+	//NOTE: This function is called from ReplanQueue.java, after all passengers have been updated.
+	//With a planning service, the path is searched for in the background, and the old path is followed until it is applied (See: applyPlannedPath)
+	public void replan(){
+		
+		//passengers who escaped or died no longer need a path
+		if(isRemoved() || !isAlive()) return;
+		
+		generateExitTarget();
+		
+		//search in the background if there is a planning service
+		PlanningService planning = plane.getPlanningService();
+		if(planning != null){
+			Vector2i dest = currentExit.getPosition();
+			
+			//a search still pending is replaced, as it leads to the old exit target
+			if(plannedPath != null) plannedPath.cancel(false);
+			
+			//fit the position as findPath does, then submit the search
+			position.fitToMultiple(dest, 4);
+			updatePositionGrid();
+			final Future<int[]> planned = planning.submit(position.getX(), position.getY(), dest.getX(), dest.getY());
+			plannedPath = planned;
+			
+			//start the trail at the position searched from, and the step being moved to
+			trailSize = 0;
+			addTrail(Vector2i.pack(position.getX(), position.getY()));
+			if(target != NOTARGET) addTrail(target);
+			trailStart = trailSize;
+			
+			//apply the path a fixed number of ticks later, however long the search takes
+			//NOTE: A search replaced before its tick is not applied
+			Simulation simulation = plane.getSimulation();
+			simulation.getScheduler().schedule(simulation.getTicks() + plane.getPlanLag(), new Scheduler.Event(){
+				public void fire(long tick){
+					if(plannedPath == planned) applyPlannedPath();
+				}
+			});
+			return;
+		}
+		
+		findPath(currentExit.getPosition());
+	}
+	
+	//replaces the path with the path found in the background, waiting for the search if it has not finished
+	//NOTE: This function is called by the event replan schedules, at the start of the tick planLag ticks after the search was submitted.
+	//The passenger may have moved along their old path since, so they are led back along the steps taken to the last one on the new path
+	private void applyPlannedPath(){
+		
+		//get the path
+		int[] planned;
+		try{
+			planned = plannedPath.get();
+		}catch(InterruptedException | ExecutionException e){
+			throw new RuntimeException("Path planning failed", e);
+		}
+		plannedPath = null;
+		
+		//passengers who escaped or died no longer need a path
+		if(isRemoved() || !isAlive()) return;
+		
+		//if no path could be found, kill the passenger
+		pathSize = 0;
+		if(planned == null){
+			pathNotFound();
+			return;
+		}
+		
+		//if no step was taken since the search, follow the new path once the current step is reached, as a search during the tick would
+		if(trailSize == trailStart){
+			ensurePathCapacity(planned.length);
+			System.arraycopy(planned, 0, path, 0, planned.length);
+			pathSize = planned.length;
+			return;
+		}
+		
+		//find the last step taken that lies on the new path. The position searched from comes before the first step of the new path
+		int last = trailSize - 1;
+		int join = last, at = -1;
+		for(; join > 0; join--){
+			at = indexOf(planned, trail[join]);
+			if(at != -1) break;
+		}
+		if(join == 0) at = planned.length;
+		
+		//the path is the new path up to the joining step, then the steps taken back to it, so the step before the current one is taken first
+		ensurePathCapacity(at + last - join);
+		System.arraycopy(planned, 0, path, 0, at);
+		System.arraycopy(trail, join, path, at, last - join);
+		pathSize = at + last - join;
+		
+		//if the joining step is the current step, keep moving to it, otherwise turn back
+		if(join != last) target = NOTARGET;
+	}
+	
+	//adds a step to the trail, growing it if required
+	private void addTrail(int step){
+		if(trailSize == trail.length) trail = Arrays.copyOf(trail, trailSize * 2);
+		trail[trailSize++] = step;
+	}
+	
+	//returns the index of a step in a path, or -1 if it is not on the path
+	private static int indexOf(int[] steps, int step){
+		for(int i = 0; i < steps.length; i++){
+			if(steps[i] == step) return i;
+		}
+		return -1;
+	}
+	
 	//handles instructing other passengers of a broken exit
 	//NOTE: This function is called withing a instance of Passenger.java
 	private void instruct(){
@@ -520,8 +723,12 @@ public class Passenger extends Entity{
 		//if the instructedExits is not empty
 		if(!instructedExits.isEmpty()){
 			
-			//loop through all passengers
-			for(Passenger p : plane.getPassengers()){
+			//loop through the living passengers in the grid cells around the passenger (See: Plane.findNeighbours)
+			Passenger[] all = plane.getPassengers();
+			int count = plane.findNeighbours(getPos(), shoutRadius);
+			int[] neighbours = plane.getNeighbours();
+			for(int i = 0; i < count; i++){
+				Passenger p = all[neighbours[i]];
 				
 				//if the current passenger is itself, then continue looping
 				if(p == this) continue;
@@ -542,20 +749,30 @@ public class Passenger extends Entity{
 	
 	//the update function
 	public void update(){
+		updateMovement();
+		updateInteractions();
+	}
+	
+	//the first half of the update, moving the passenger along its path
+	//NOTE: Only changes the passenger itself, so passengers can run this in parallel (See: Plane.update)
+	public void updateMovement(){
 		
-		
-		//if the passenger is not alive, then do not update
-		if(!alive) return;
-		
-		//the passenger cannot function until the initial response (or shock) time is
-		//completely depleted
-		if(Main.simulationTime <= initialResponse) return;
+		//if the passenger cannot act, then do not update
+		if(!canAct()) return;
 		
 		//if the passenger is not in a queue, then move
-		if(!inExitQueue) pathMove();
+		if(!store.is(id, PassengerStore.INEXITQUEUE)) pathMove();
+	}
+	
+	//the second half of the update, handling escaping, instructing other passengers and the collision grid
+	//NOTE: Changes other passengers and the plane, so passengers must run this one at a time
+	public void updateInteractions(){
+		
+		//if the passenger cannot act, then do not update
+		if(!canAct()) return;
 		
 		//if the passenger is not in a exit queue, path is empty and has been flagged for exiting, the passenger is removed
-		if(!inExitQueue && path.isEmpty() && exiting){
+		if(!store.is(id, PassengerStore.INEXITQUEUE) && pathSize == 0 && store.is(id, PassengerStore.EXITING)){
 			plane.escaped++;
 			remove();
 		}
@@ -564,26 +781,51 @@ public class Passenger extends Entity{
 		if(plane.communicate()) instruct();
 		
 		//re-set the vector position
-		position.set((int) x, (int) y);
-		collision.setLocation((int) x, (int) y); 
+		position.set((int) store.x[id], (int) store.y[id]);
+		updatePositionGrid();
+		setCollisionLocation((int) store.x[id], (int) store.y[id]); 
 		
 	}
 
+	//returns if the passenger is alive and has finished their initial response (or shock) time
+	private boolean canAct(){
+		return (store.flags[id] & (PassengerStore.ALIVE | PassengerStore.AWAKE)) == (PassengerStore.ALIVE | PassengerStore.AWAKE);
+	}
+	
+	//wakes the passenger from their initial response (or shock)
+	//NOTE: Called by the wake event the plane schedules at the first tick past the initial response (See: Plane.scheduleWakes)
+	public void wake(){
+		store.set(id, PassengerStore.AWAKE, true);
+	}
+	
+	//removes the passenger, taking them out of the collision grid
+	public void remove(){
+		super.remove();
+		store.set(id, PassengerStore.REMOVED, true);
+		plane.getCollisionGrid().remove(id);
+		plane.getPositionGrid().remove(id);
+	}
+	
+	//returns if the passenger has been removed
+	public boolean isRemoved(){
+		return store.is(id, PassengerStore.REMOVED);
+	}
+
 	//the render function
 	public void render(Screen screen){
 		
 		//render the passenger
-		screen.renderGraphic(graphic, (int) x, (int) y);
+		screen.renderGraphic(graphic, (int) store.x[id], (int) store.y[id]);
 		
 		//if the passenger is not alive, render the dead graphic
-		if(!alive) screen.renderGraphic(deathGraphic, (int) x, (int) y);
+		if(!isAlive()) screen.renderGraphic(deathGraphic, (int) store.x[id], (int) store.y[id]);
 	}
 	
 	//renders the A* path to the screen
 	//NOTE: This function is called in Plane.java and is dependent on the state set by ControlPanel.java
 	public void renderPath(Screen screen){
-		for(int i = 0; i < path.size(); i++){
-			path.get(i).render(screen);
+		for(int i = 0; i < pathSize; i++){
+			screen.renderGraphic(pathGraphic, Vector2i.unpackX(path[i]), Vector2i.unpackY(path[i]));
 		}
 	}
 	
@@ -596,9 +838,14 @@ public class Passenger extends Entity{
 	//enters the passenger into a exit queue
 	//NOTE: This is called exclusivly from Exit.java
 	public void enterExitQueue(){
-		inExitQueue = true;
+		store.set(id, PassengerStore.INEXITQUEUE, true);
 	}
 
+	//returns the initial response (or shock) time of the passenger
+	public double getInitialResponse(){
+		return initialResponse;
+	}
+	
 	//returns if the passenger is stationary
 	public boolean isStationary(){
 		return stationary;
@@ -606,32 +853,37 @@ public class Passenger extends Entity{
 	
 	//returns if the passenger is in a exit queue
 	public boolean isInExitQueue(){
-		return inExitQueue;
+		return store.is(id, PassengerStore.INEXITQUEUE);
 	}
 	
 	//returns the passenger speed
 	public double getSpeed(){
-		return speed;
+		return store.speed[id];
 	}
 
 	//returns if the passenger is alive
 	public boolean isAlive(){
-		return alive;
+		return store.is(id, PassengerStore.ALIVE);
+	}
+	
+	//returns the x position of the collision box
+	public int getCollisionX(){
+		return store.boxX[id];
 	}
 	
-	//returns the collision box
-	public Rectangle getCollision(){
-		return collision;
+	//returns the y position of the collision box
+	public int getCollisionY(){
+		return store.boxY[id];
 	}
 	
 	//return the x-point
 	public double getX(){
-		return x;
+		return store.x[id];
 	}
 	
 	//return the y-point
 	public double getY(){
-		return y;
+		return store.y[id];
 	}
 	
 	//returns the id of the passenger
@@ -0,0 +1,58 @@
+package com.main.entity;
+
+/**
+ * PassengerStore.java holds the state of every passenger that is read each update, in parallel arrays indexed by passenger id. <br>
+ * Loops over passengers, such as collision tests, read along a few arrays instead of following each Passenger.java instance to its
+ * position, collision box and flags, so even large numbers of passengers stay within cache bandwidth.
+ * Each Passenger.java instance reads and writes its own index of the store. <br>
+ * NOTE: State that is rarely read, such as the path and the known exits, stays in Passenger.java
+ */
+
+public class PassengerStore {
+
+	//the flags of a passenger
+	public static final byte ALIVE = 1, REMOVED = 2, INEXITQUEUE = 4, EXITING = 8, AWAKE = 16;
+
+	//the x, y position of each passenger
+	final double[] x, y;
+
+	//the speed at which each passenger can move
+	final double[] speed;
+
+	//the mass of each passenger (kg)
+	final int[] mass;
+
+	//the flags of each passenger (See: ALIVE, REMOVED, INEXITQUEUE, EXITING, AWAKE)
+	final byte[] flags;
+
+	//the absolute position of each passengers collision box
+	final int[] boxX, boxY;
+
+	//constructor. Accepts: the number of passengers
+	public PassengerStore(int capacity){
+		x = new double[capacity];
+		y = new double[capacity];
+		speed = new double[capacity];
+		mass = new int[capacity];
+		flags = new byte[capacity];
+		boxX = new int[capacity];
+		boxY = new int[capacity];
+	}
+
+	//returns if a flag of a passenger is set
+	public boolean is(int id, byte flag){
+		return (flags[id] & flag) != 0;
+	}
+
+	//sets or clears a flag of a passenger
+	public void set(int id, byte flag, boolean value){
+		if(value) flags[id] |= flag;
+		else flags[id] &= ~flag;
+	}
+
+	//returns the number of passengers the store holds
+	public int getCapacity(){
+		return flags.length;
+	}
+
+}
@@ -1,13 +1,26 @@
 package com.main.entity;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
-import com.main.Main;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import com.main.Simulation;
 import com.main.graphics.Graphic;
-import com.main.graphics.ImageLoader;
 import com.main.graphics.Screen;
+import com.main.pathfinding.CachedPathFinder;
+import com.main.pathfinding.FlowField;
+import com.main.pathfinding.PathCache;
+import com.main.pathfinding.PathFinder;
+import com.main.pathfinding.Planner;
+import com.main.pathfinding.PlanningService;
+import com.main.pathfinding.Star;
 import com.main.pathfinding.TileMapGenerator;
+import com.main.util.CollisionMap;
+import com.main.util.IdList;
+import com.main.util.RandomStream;
+import com.main.util.Scheduler;
+import com.main.util.SpatialGrid;
 import com.main.util.Vector2i;
 
 /**
@@ -46,13 +59,11 @@ public class Plane extends Entity{
 	//the graphic for the plane
 	private Graphic graphic;
 	
-	//the main instance
-	private Main main;
-	
 	//graphic path
 	private String gp = "/plane.png"; 
 	
-	private static final int COLLIDABLECODE = 0xff000000;
+	//the graphic, collidable pixels, exits, seats and navigation data of the plane, shared by all planes (See: CabinLayout.java)
+	private CabinLayout layout;
 	
 	//the amount of souls on board. max =132
 	private int passengerCount;
@@ -87,33 +98,122 @@ public class Plane extends Entity{
 	//holds each passenger on the plane
 	private Passenger[] passengers;
 	
+	//holds the state of each passenger read every update, indexed by passenger id (See: PassengerStore.java)
+	private PassengerStore passengerStore;
+	
 	//holds each exit door on the plane
 	private Exit[] exits = new Exit[EXITCOUNT];
 	
-	//Holds all collidablePixels on the plane graphic
-	public static List<Vector2i> collidablePixels = new ArrayList<Vector2i>();
+	//the passengers waiting for a new path, and the largest number replanned each tick (0 for no limit) (See: ReplanQueue.java)
+	private ReplanQueue replanQueue;
+	private int replanBudget = 0;
+	
+	//the size of a cell in the collision grid. Twice the size of a passenger, so a collision only checks the cells around a passenger
+	public static final int COLLISIONCELL = 20;
+	
+	//a grid of all passengers that can be collided with, by the position of their collision box (See: SpatialGrid.java)
+	//NOTE: Removed passengers are taken out of the grid
+	private SpatialGrid collisionGrid;
+	
+	//the size of a cell in the position grid. At least the largest shout radius, so a shout only checks the cells around a passenger
+	public static final int POSITIONCELL = 20;
+	
+	//a grid of all living passengers still on the plane, by their vector position (See: Passenger.getPos)
+	//NOTE: Used to find the passengers within a shout or exit radius. Passengers are taken out when they escape or die
+	private SpatialGrid positionGrid;
+	
+	//holds the ids found by a query of the position grid
+	//NOTE: Queries are only made while passengers interact, one at a time (See: Passenger.updateInteractions)
+	private int[] neighbours;
 	
 	//the root tilemap for all passengers 
 	private TileMapGenerator rootTilemap;
 	
-	//create a new random instance
-	private Random rand = new Random();
+	//the planner used by all passengers
+	private Planner planner = Planner.GRID;
+	
+	//the shared path planners, created with the root tilemap.
+	//NOTE: Passengers are updated one at a time, so a single instance of each is shared
+	private Star star;
+	private PathFinder pathFinder;
+	
+	//the number of threads paths are searched for on in the background, or 0 to search during the tick
+	private int planThreads = 0;
+	
+	//the number of ticks after a background search is submitted that its path is applied (See: Passenger.replan)
+	private int planLag = 1;
+	
+	//the largest number of paths held in the path cache, or 0 to search for every path (See: PathCache.java)
+	private int pathCacheSize = 0;
+	
+	//searches for paths in the background, or null to search during the tick (See: PlanningService.java)
+	//NOTE: Only created for the searching planners, once the root tilemap is set
+	private PlanningService planningService;
+	
+	//the flow field leading to each exit, indexed by exit id. Only built for the FLOW planner
+	//NOTE: Flow fields hold no search state, so they are shared through the layout
+	private FlowField[] flowFields;
+	
+	//create a new random stream
+	//NOTE: Every exit and passenger is given its own stream, split from this one (See: createRandom)
+	private RandomStream rand = new RandomStream();
 	
 	//the number of passengers who escaped
 	public int escaped = 0;
+	
+	//the simulation running the plane, which holds the clock (See: Simulation.java)
+	private Simulation simulation;
+	
+	//the pool passengers are moved on in parallel, or null to update passengers one at a time
+	private ForkJoinPool tickPool;
+	
+	//the number of passengers moved by a single task of a parallel tick
+	public static final int PARALLELTHRESHOLD = 16;
+	
+	//the position of each passengers collision box before the current tick, indexed by passenger id
+	//NOTE: Only used while passengers move in parallel
+	private int[] snapshotX, snapshotY;
+	
+	//holds if passengers are currently moving in parallel
+	private volatile boolean movingInParallel = false;
+	
+	//the ids of the passengers that are still on the plane (rendered, and collided with through the collision grid)
+	private IdList bodies;
+	
+	//the ids of the living passengers past their initial response, who are updated each tick
+	//NOTE: The lists are trimmed at the start of each tick, so late in a run a tick only touches the passengers left
+	private IdList movers;
+	
+	//the ids of the passengers woken this tick, and their number
+	private int[] woken;
+	private int wokenCount;
+	
+	//keeps the passengers still on the plane
+	private final IdList.Filter onPlane = new IdList.Filter(){
+		public boolean keep(int id){
+			return !passengerStore.is(id, PassengerStore.REMOVED);
+		}
+	};
+	
+	//keeps the passengers still on the plane and alive
+	private final IdList.Filter alive = new IdList.Filter(){
+		public boolean keep(int id){
+			return (passengerStore.flags[id] & (PassengerStore.ALIVE | PassengerStore.REMOVED)) == PassengerStore.ALIVE;
+		}
+	};
 
 	//constructor
-	public Plane(Main main){
+	public Plane(){
 		
-		//set main
-		this.main = main;
+		//get the shared layout, loading it if this is the first plane
+		layout = CabinLayout.get(gp, (int) x, (int) y);
 		
 		//set the graphic
-		graphic = ImageLoader.getImage(gp);
+		graphic = layout.getGraphic();
 	}
 	
 	//generate and start the simulation.
-	//NOTE: This function is called in the main function, but originates from ControlPanel.java
+	//NOTE: This function is called from Simulation.java, with data originating from ControlPanel.java or Headless.java
 	public void generateSimulation(int passengerCount, double survivalChance, boolean accountForSurvival, 
 			double gForce, int[] massIndex, boolean[] workingExits, boolean communicate, boolean renderPath){
 		
@@ -127,91 +227,48 @@ public class Plane extends Entity{
 		this.communicate = communicate;
 		this.renderPath = renderPath;
 		
-		//sets the passengers
+		//sets the passengers, and the store holding their state
 		passengers = new Passenger[passengerCount];
-		
-		//generate the list of collidable pixels
-		generateCollision();
+		passengerStore = new PassengerStore(passengerCount);
+		replanQueue = new ReplanQueue(passengerCount, replanBudget);
 		
 		//load the exits into the plane
 		loadExits();
 		
+		//create the collision grid covering the plane
+		collisionGrid = new SpatialGrid((int) x, (int) y, graphic.getWidth(), graphic.getHeight(), COLLISIONCELL, passengerCount);
+		positionGrid = new SpatialGrid((int) x, (int) y, graphic.getWidth(), graphic.getHeight(), POSITIONCELL, passengerCount);
+		neighbours = new int[passengerCount];
+		
 		//load the passengers into the plane
 		loadPassengers();
-				
+		
+		//start the active lists with every passenger. Passengers start moving once woken (See: scheduleWakes)
+		loadActive();
 	}
 	
-	//interprets the graphic to place the required emergency exits
-	//NOTE: Exits are located using the colour code: 0xffffae00
+	//places the required emergency exits at the positions found on the graphic
 	private void loadExits(){
 		
-		//get graphic data
-		int w = graphic.getWidth();
-		int h = graphic.getHeight();
-		int[] pixels = graphic.getGraphic();
-		
-		//set a iterator value
-		int iterator = 0;
-		
-		//loop through the contents of the y axis
-		for(int y = 0; y < h; y++){
-			int ya = y + (int) this.y;
+		//loop through each exit position
+		List<Vector2i> exitPositions = layout.getExitPositions();
+		for(int iterator = 0; iterator < exitPositions.size(); iterator++){
 			
-			//loop through the contents of the x axis
-			for(int x = 0; x < w; x++){
-				int xa = x + (int) this.x;
-				
-				//get the current pixel
-				int pixel = pixels[x + y * w];
-				
-				if(pixel == 0xffffae00){
-					
-					//get the id for the given exit
-					int id = iterator;
-										
-					//generate a new exit
-					Exit exit = new Exit(xa, ya, id, workingExits[iterator], this);
-					exits[iterator] = exit;
-					
-					//increment the iterator
-					iterator++;
-				}
-			}
-		}	
+			//get the position and id for the given exit
+			Vector2i pos = exitPositions.get(iterator);
+			int id = iterator;
+			
+			//generate a new exit
+			Exit exit = new Exit(pos.getX(), pos.getY(), id, workingExits[iterator], this);
+			exits[iterator] = exit;
+		}
 	}
 	
-	//interprets the graphic to place the required passengers.
-	//NOTE: Passengers are placed based of a 0xff0000ff pixel located at their given seat. See plane graphic for details
+	//places the required passengers at the seats found on the graphic.
 	private void loadPassengers(){
 		
-		//get graphic data
-		int w = graphic.getWidth();
-		int h = graphic.getHeight();
-		int[] pixels = graphic.getGraphic();
-		
 		//A Vector2i buffer used to initially hold the passengers found from the graphic
-		List<Vector2i> passBuffer = new ArrayList<Vector2i>();
-	
-		//NOTE: When a passenger is found, it is initially added to a buffer
-		//loop through the y contents of the screen
-		for(int y = 0; y < h; y++){
-			int ya = y + (int) this.y;
-			
-			//loop through the x contents of the screen
-			for(int x = 0; x < w; x++){
-				int xa = x + (int) this.x;
-				
-				//get the current pixel
-				int pixel = pixels[x + y * w];
-				
-				//if the pixel is equal to the passenger color
-				if(pixel == 0xff0000ff){
-					
-					//add the new found passenger to the passengerBuffer
-					passBuffer.add(new Vector2i(xa, ya));
-				}
-			}
-		}
+		List<Vector2i> passBuffer = new ArrayList<Vector2i>(layout.getSeatPositions());
 		
 		//if the passengerCount is bellow the maximum, some of the passengers must be randomly removed
 		if(passengerCount != 132){
@@ -258,74 +315,150 @@ public class Plane extends Entity{
 			//create a new passenger in the passengers array with the found data
 			passengers[i] = new Passenger(x, y, massIndex[i], survive, this, i);
 			
+			//add the passenger to the collision grid
+			collisionGrid.insert(i, passengers[i].getCollisionX(), passengers[i].getCollisionY());
+			
+			//add the passenger to the position grid if they are alive
+			if(passengers[i].isAlive()) positionGrid.insert(i, passengers[i].getPos().getX(), passengers[i].getPos().getY());
+			
 		}
 		
 	
 				
 	}
 
-	//Generates a list of pixels found on the plane graphic that are collidable
-	private void generateCollision(){
-		
-		//get the width and height of the plane graphic
-		int w = graphic.getWidth();
-		int h = graphic.getHeight();
-		
-		//get the pixel array from the graphic
-		int[] pixels = graphic.getGraphic();
-		
-		//loop through the y component of the graphic
-		for(int y = 0; y < h; y++){
-			
-			//calculate the absolute position of the pixel
-			int ya = y + (int) this.y;
-			
-			//loop through the x component of the graphic
-			for(int x = 0; x < w; x++){
-				
-				//Absolute position
-				int xa = x + (int) this.x;
-				
-				//get the given pixel from the graphic
-				int pixel = pixels[x + y * w];
-				
-				//if the pixel is
-				if(pixel == COLLIDABLECODE){
-					
-					//create a vector with the absolute position data and add said vector to the collidable pixels list
-					Vector2i pos = new Vector2i(xa, ya);
-					collidablePixels.add(pos);
+	//fills the active lists. The movers start empty, as every passenger starts in shock
+	private void loadActive(){
+		bodies = new IdList(passengerCount);
+		movers = new IdList(passengerCount);
+		for(int i = 0; i < passengerCount; i++){
+			bodies.add(i);
+		}
+		woken = new int[passengerCount];
+		wokenCount = 0;
+	}
+	
+	//schedules each passenger to wake at the first tick past their initial response (See: Passenger.wake)
+	//NOTE: Passengers are scheduled in id order, so passengers waking at the same tick are woken in id order
+	private void scheduleWakes(){
+		for(final Passenger p : passengers){
+			simulation.getScheduler().schedule(Simulation.tickAfter(p.getInitialResponse()), new Scheduler.Event(){
+				public void fire(long tick){
+					if(alive.keep(p.getID())){
+						p.wake();
+						woken[wokenCount++] = p.getID();
+					}
 				}
-			}
+			});
 		}
 	}
 	
+	//trims the passengers who escaped or died from the active lists, and adds the passengers who woke this tick to the movers
+	//NOTE: Passengers who escape or die during a tick stay in the lists until the next tick, so loops over the lists still check them
+	private void updateActive(){
+		bodies.retain(onPlane);
+		movers.retain(alive);
+		
+		//the movers are kept in id order, so passengers are updated in the same order as before
+		Arrays.sort(woken, 0, wokenCount);
+		movers.merge(woken, wokenCount);
+		wokenCount = 0;
+	}
+	
 	//the update function
+	//NOTE: With a tick pool, passengers move in parallel against a snapshot of the positions before the tick,
+	//and then interact one at a time in id order. The result is the same for any number of threads,
+	//but differs from updating one at a time, where each passenger sees the moves of the passengers before it
 	public void update(){
 		
-		//Loop through all passengers
-		for(Passenger p : passengers){
+		//trim and wake the active lists
+		updateActive();
+		
+		//update the passengers in parallel if there is a pool
+		if(tickPool != null){
+			updateParallel();
+		}else{
 			
-			//if the passenger is not removed, then update
-			if(!p.isRemoved()) p.update();
+			//Loop through the moving passengers
+			for(int i = 0; i < movers.size(); i++){
+				Passenger p = passengers[movers.get(i)];
+				
+				//if the passenger is not removed, then update
+				if(!p.isRemoved()) p.update();
+			}
 		}
 
+		//find the new paths of the passengers told of a broken exit
+		//NOTE: Run before the exits, as a new path re-fits the passengers position, which the exits test against
+		replanQueue.run(passengers);
+
 		//Update each exit
 		for(Exit e : exits){
 			e.update();
 		}
+	}
+	
+	//updates the passengers, moving them in parallel
+	private void updateParallel(){
 		
-		//if all passengers have escpaed
-		if(escaped >= passengerCount){
-			
-			//print the final stats
-			printStats();
-			
-			//stop the simulation
-			main.stop();
+		//take a snapshot of the collision boxes before the tick
+		if(snapshotX == null){
+			snapshotX = new int[passengers.length];
+			snapshotY = new int[passengers.length];
+		}
+		System.arraycopy(passengerStore.boxX, 0, snapshotX, 0, passengers.length);
+		System.arraycopy(passengerStore.boxY, 0, snapshotY, 0, passengers.length);
+		
+		//move all passengers in parallel
+		movingInParallel = true;
+		try{
+			tickPool.invoke(new MoveTask(0, movers.size()));
+		}finally{
+			movingInParallel = false;
+		}
+		
+		//handle the interactions of each moving passenger, one at a time
+		for(int i = 0; i < movers.size(); i++){
+			Passenger p = passengers[movers.get(i)];
+			if(!p.isRemoved()) p.updateInteractions();
 		}
 	}
 	
+	/**
+	 * Moves a range of the moving passengers, split in half until a range is small enough to move on one thread
+	 */
+	private class MoveTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		//the index of the first passenger in the movers, and the index after the last
+		private int first, end;
+		
+		//constructor
+		public MoveTask(int first, int end){
+			this.first = first;
+			this.end = end;
+		}
+		
+		//moves the range
+		protected void compute(){
+			if(end - first <= PARALLELTHRESHOLD){
+				for(int i = first; i < end; i++){
+					Passenger p = passengers[movers.get(i)];
+					if(!p.isRemoved()) p.updateMovement();
+				}
+				return;
+			}
+			int middle = (first + end) >>> 1;
+			invokeAll(new MoveTask(first, middle), new MoveTask(middle, end));
+		}
+	}
+	
+	//returns if all passengers have escaped
+	public boolean isFinished(){
+		return escaped >= passengerCount;
+	}
+	
 	//print the final stats 
 	public void printStats(){
 		
@@ -333,7 +466,7 @@ public class Plane extends Entity{
 		
 		System.out.println("Passengers survived: " + escaped);
 		System.out.println("Passengers perished: " + perished);
-		System.out.println("Time elapsed: " + Main.simulationTime);
+		System.out.println("Time elapsed: " + simulation.getSimulationTime());
 	}
 	
 	//the render function
@@ -342,8 +475,9 @@ public class Plane extends Entity{
 		//render the plane graphic to the screen
 		screen.renderGraphic(graphic, (int) x, (int) y);
 		
-		//loop the passenger list
-		for(Passenger p : passengers){
+		//loop the passengers still on the plane
+		for(int i = 0; i < bodies.size(); i++){
+			Passenger p = passengers[bodies.get(i)];
 			
 			//if a given passenger is not removed, continue
 			if(!p.isRemoved()){
@@ -360,9 +494,117 @@ public class Plane extends Entity{
 		return communicate;
 	}
 	
+	//seeds the random stream, so the run can be repeated (See: Scenario.planeSeed)
+	//NOTE: Must be set before the simulation is generated
+	public void setSeed(long seed){
+		rand = new RandomStream(seed);
+	}
+	
+	//creates a new random stream, split from the plane's random stream
+	//NOTE: Exits and passengers are always created in the same order, so a seeded plane gives each of them the same stream every run
+	public RandomStream createRandom(){
+		return rand.split();
+	}
+	
+	//queues a passenger to find a new path once all passengers are updated (See: ReplanQueue.java)
+	public void requestReplan(int id){
+		replanQueue.request(id);
+	}
+	
+	//sets the number of threads paths are searched for on in the background, or 0 to search during the tick
+	//NOTE: Must be set before the simulation is generated
+	public void setPlanThreads(int planThreads){
+		this.planThreads = planThreads;
+	}
+	
+	//sets the number of ticks after a background search is submitted that its path is applied
+	//NOTE: Must be set before the simulation is generated
+	public void setPlanLag(int planLag){
+		this.planLag = planLag;
+	}
+	
+	//gets the number of ticks after a background search is submitted that its path is applied
+	public int getPlanLag(){
+		return planLag;
+	}
+	
+	//sets the largest number of paths held in the path cache, or 0 to search for every path
+	//NOTE: Must be set before the root tilemap is set
+	public void setPathCache(int pathCacheSize){
+		this.pathCacheSize = pathCacheSize;
+	}
+	
+	//gets the planning service, or null if paths are searched for during the tick
+	public PlanningService getPlanningService(){
+		return planningService;
+	}
+	
+	//sets the largest number of passengers replanned each tick, or 0 for no limit
+	//NOTE: Must be set before the simulation is generated
+	public void setReplanBudget(int replanBudget){
+		this.replanBudget = replanBudget;
+	}
+	
 	//set the root tileMap (Accepts: TileMapGenerator instance)
 	public void setRoot(TileMapGenerator tileMap){
 		rootTilemap = tileMap;
+		
+		//create the planner for the root tilemap
+		if(planner == Planner.STAR) star = new Star(tileMap);
+		else if(planner == Planner.FLOW) flowFields = layout.getFlowFields(tileMap);
+		else pathFinder = planner.createPathFinder(tileMap);
+		
+		//share the path cache of the layout between the planners of the run, and the runs before it
+		PathCache cache = null;
+		if(pathCacheSize > 0 && pathFinder != null){
+			cache = layout.getPathCache(tileMap, planner, pathCacheSize);
+			pathFinder = new CachedPathFinder(pathFinder, cache);
+		}
+		
+		//create the planning service if paths are searched for in the background
+		if(planThreads > 0 && planner != Planner.FLOW) planningService = new PlanningService(tileMap, planner, planThreads, cache);
+	}
+	
+	//sets the simulation running the plane, and schedules the passengers to wake
+	//NOTE: This function is called from the Simulation.java constructor, after the simulation is generated
+	public void setSimulation(Simulation simulation){
+		this.simulation = simulation;
+		scheduleWakes();
+	}
+	
+	//gets the simulation running the plane
+	public Simulation getSimulation(){
+		return simulation;
+	}
+	
+	//sets the pool passengers are moved on in parallel, or null to update passengers one at a time
+	public void setTickPool(ForkJoinPool tickPool){
+		this.tickPool = tickPool;
+	}
+	
+	//returns if passengers are currently moving in parallel
+	public boolean isMovingInParallel(){
+		return movingInParallel;
+	}
+	
+	//returns the x position of each passengers collision box before the current tick
+	public int[] getSnapshotX(){
+		return snapshotX;
+	}
+	
+	//returns the y position of each passengers collision box before the current tick
+	public int[] getSnapshotY(){
+		return snapshotY;
+	}
+	
+	//gets the shared layout of the plane
+	public CabinLayout getLayout(){
+		return layout;
+	}
+	
+	//gets the collidable pixels of the plane graphic
+	public CollisionMap getCollidablePixels(){
+		return layout.getCollidablePixels();
 	}
 	
 	//gets the root tilemap
@@ -370,12 +612,69 @@ public class Plane extends Entity{
 		return rootTilemap;
 	}
 	
+	//sets the planner used by all passengers
+	//NOTE: Must be set before the simulation is generated
+	public void setPlanner(Planner planner){
+		this.planner = planner;
+	}
+	
+	//gets the planner used by all passengers
+	public Planner getPlanner(){
+		return planner;
+	}
+	
+	//gets the shared Star.java instance
+	public Star getStar(){
+		return star;
+	}
+	
+	//gets the shared path finder of the planner, or null for STAR and FLOW (See: Planner.createPathFinder)
+	public PathFinder getPathFinder(){
+		return pathFinder;
+	}
+	
+	//gets the flow field leading to a exit. Accepts: the exit id
+	public FlowField getFlowField(int id){
+		return flowFields[id];
+	}
+	
 	//returns the gForce on impact
 	public double getGForce(){
 		return gForce;
 	}
 	
 	
+	//returns the collision grid
+	public SpatialGrid getCollisionGrid(){
+		return collisionGrid;
+	}
+	
+	//returns the store holding the state of each passenger
+	public PassengerStore getPassengerStore(){
+		return passengerStore;
+	}
+	
+	//finds the living passengers within a distance of a position, writing their ids to the neighbour array in id order
+	//Accepts: the position, the distance. Returns the number of ids found
+	//NOTE: Returns every passenger in the grid cells in range, so the caller must still test the exact distance
+	public int findNeighbours(Vector2i pos, double distance){
+		int count = positionGrid.queryRadius(pos.getX(), pos.getY(), (int) Math.ceil(distance), neighbours);
+		
+		//sort the ids, so passengers are handled in the same order as a loop over every passenger
+		Arrays.sort(neighbours, 0, count);
+		return count;
+	}
+	
+	//returns the ids found by the last neighbour search (See: findNeighbours)
+	public int[] getNeighbours(){
+		return neighbours;
+	}
+	
+	//returns the position grid
+	public SpatialGrid getPositionGrid(){
+		return positionGrid;
+	}
+	
 	//returns the passenger list
 	public Passenger[] getPassengers(){
 		return passengers;
@@ -0,0 +1,64 @@
+package com.main.entity;
+
+/**
+ * ReplanQueue.java holds the passengers waiting for a new path, so paths are found in one batch once all passengers are updated. <br>
+ * When a broken exit is shouted through the cabin, each passenger told is only queued, instead of searching for a new path
+ * in the middle of the shouting passenger's update. A passenger is only queued once, no matter how many times they are told in a tick.
+ * <ul>
+ * 	<li> Passengers are replanned in the order they were queued
+ * 	<li> With a budget, only that many passengers are replanned each tick, and the rest wait for the next tick
+ * 	<li> With a planning service, the searches run in the background, and each path is applied planLag ticks after it was submitted (See: Passenger.replan)
+ * </ul>
+ * NOTE: Passengers keep following their old path until they are replanned (See: Passenger.replan)
+ */
+
+public class ReplanQueue {
+
+	//the ids of the queued passengers, as a ring buffer
+	private int[] ids;
+
+	//the index of the first queued passenger, and the number of queued passengers
+	private int head = 0, size = 0;
+
+	//holds if each passenger is queued
+	private boolean[] queued;
+
+	//the largest number of passengers replanned in a tick, or 0 for no limit
+	private int budget;
+
+	//constructor. Accepts: the number of passengers, the number of passengers replanned each tick (0 for no limit)
+	public ReplanQueue(int capacity, int budget){
+		ids = new int[Math.max(capacity, 1)];
+		queued = new boolean[capacity];
+		this.budget = budget;
+	}
+
+	//queues a passenger for a new path, unless they are already queued
+	public void request(int id){
+		if(queued[id]) return;
+		queued[id] = true;
+		ids[(head + size++) % ids.length] = id;
+	}
+
+	//replans the queued passengers, up to the budget. Accepts: the passengers of the plane
+	//NOTE: Passengers queued while the batch runs wait for the next batch
+	public void run(Passenger[] passengers){
+		int count = size;
+		if(budget > 0) count = Math.min(count, budget);
+
+		//take each passenger from the front of the queue, and find their new path
+		for(int i = 0; i < count; i++){
+			int id = ids[head];
+			head = (head + 1) % ids.length;
+			size--;
+			queued[id] = false;
+			passengers[id].replan();
+		}
+	}
+
+	//returns the number of queued passengers
+	public int size(){
+		return size;
+	}
+
+}
@@ -5,7 +5,6 @@ import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.DecimalFormat;
-import java.util.Random;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JFrame;
@@ -13,9 +12,11 @@ import javax.swing.JSlider;
 import javax.swing.JTextField;
 import javax.swing.event.ChangeEvent;
 import com.main.Main;
+import com.main.Scenario;
 import com.main.entity.Passenger;
 import com.main.entity.Plane;
 import com.main.util.Frame;
+import com.main.util.RandomStream;
 
 /**
  * Handles all functionalities related to the side control panel
@@ -109,8 +110,8 @@ public class ControlPanel extends Frame{
 	//the survival time (initially set to 100)
 	private int survivalTime = 100;
 		
-	//random instance
-	Random rand = new Random();
+	//the seed of the run. A run can be repeated from its seed (See: Headless.java)
+	private long seed = new RandomStream().nextLong();
 	
 	//construtor. Accepts: instance of Main.java, instance of the simulation JFrame
 	public ControlPanel(Main main, JFrame simulationFrame){
@@ -427,18 +428,12 @@ public class ControlPanel extends Frame{
 		//create a temporary total mass
 		int totalMass = 0;
 		
-		//Instantiate the massIndex
-		massIndex = new int[passengerCount];
+		//randomly generate the massIndex in bounds, from the seed
+		massIndex = Scenario.generateMassIndex(passengerCount, massMin, massMax, seed);
 		
-		//loop the passenger count
+		//loop the passenger count, adding each mass on to the total
 		for(int i = 0; i < passengerCount; i++){
-			
-			//randomly generate a new mass in bounds
-			int mass = rand.nextInt((massMax - massMin) + 1) + massMin;
-			
-			//set the mass in the index and add on to the total
-			massIndex[i] = mass;
-			totalMass+=mass;
+			totalMass+=massIndex[i];
 		}
 		
 		//calculate the deceleration time
@@ -458,16 +453,8 @@ public class ControlPanel extends Frame{
 		impactForce = totalMass * deceleration;
 		inputImpactForce.setText(f.format(impactForce/1000));
 		
-		//if the gForce is less than the deadly gForce, then continue
-		if(gForce <= Passenger.DEATHLYGFORCE){
-			
-			//calculate survival chance
-			survivalChance = (1.0 - (gForce/Passenger.DEATHLYGFORCE))*100;
-		}else{
-			
-			//if the gForce is higher, then set the survival rate to 0
-			survivalChance = 0.0;
-		}
+		//calculate survival chance
+		survivalChance = Scenario.calculateSurvivalChance(gForce);
 		
 		inputSurvival.setText(f.format(survivalChance) + "%");
 		
@@ -488,8 +475,7 @@ public class ControlPanel extends Frame{
 	//calculate the deceleration time.
 	//Accepts: The angle of impact
 	private double calculateDecelTime(double angle){
-		double decelerationTime = (-1 * Math.pow(2, (0.059*angle)) + 40 )/6.5;		
-		return decelerationTime;
+		return Scenario.calculateDecelTime(angle);
 	}
 	
 	//Runs the simulation
@@ -517,7 +503,7 @@ public class ControlPanel extends Frame{
 		
 		//call-back on Main.java with the initial data
 		main.runSimulation(passengerCount, survivalChance, accountForSurvival.isSelected(), 
-				gForce, massIndex, workingExits, communication.isSelected(), renderPath.isSelected(), speed, survivalTime);
+				gForce, massIndex, workingExits, communication.isSelected(), renderPath.isSelected(), speed, survivalTime, seed);
 	}
 	
 	//the action listener function
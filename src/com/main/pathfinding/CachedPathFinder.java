@@ -0,0 +1,50 @@
+package com.main.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A path finder that looks a search up in a shared path cache before searching, and caches what it finds (See: PathCache.java). <br>
+ * Wraps the path finder of the planner, so each thread still has its own search state, but all of them share the cache. <br>
+ * NOTE: A cached path is the path the planner itself would find, so the planner gives the same paths with or without the cache
+ */
+
+public class CachedPathFinder implements PathFinder {
+
+	//the path finder searched with when a search is not cached
+	private PathFinder pathFinder;
+
+	//the shared path cache
+	private PathCache cache;
+
+	//the last path found, from the goal to the first step, as packed coordinates
+	//NOTE: A cached path is shared, and must not be changed
+	private int[] path = PathCache.NOPATH;
+
+	//constructor. Accepts: the path finder of the planner, the shared path cache
+	public CachedPathFinder(PathFinder pathFinder, PathCache cache){
+		this.pathFinder = pathFinder;
+		this.cache = cache;
+	}
+
+	//Finds a new path given a start and finish, in ABSOLUTE precision
+	//Returns the length of the path written to getPath(), or -1 if no path can be found
+	public int findPath(int startX, int startY, int goalX, int goalY){
+		long key = PathCache.key(startX, startY, goalX, goalY);
+
+		//search only if the path is not cached, copying the path out of the planner as the planner re-uses it
+		path = cache.get(key);
+		if(path == null){
+			int length = pathFinder.findPath(startX, startY, goalX, goalY);
+			path = length == -1 ? PathCache.NOPATH : Arrays.copyOf(pathFinder.getPath(), length);
+			cache.put(key, path);
+		}
+		return path == PathCache.NOPATH ? -1 : path.length;
+	}
+
+	//returns the last path found, from the goal to the first step, as packed coordinates
+	//NOTE: The array must not be changed, as it may be shared through the cache
+	public int[] getPath(){
+		return path;
+	}
+
+}
@@ -0,0 +1,258 @@
+package com.main.pathfinding;
+
+import com.main.util.IndexedHeap;
+import com.main.util.Vector2i;
+
+/**
+ * A distance and direction field leading to a single target, such as a exit. <br>
+ * The field is built once with a reverse Dijkstra search from the target over the tilemap.
+ * Any number of passengers can then follow it to the target without searching, by stepping to the neighbouring tile the field points at. <br>
+ * NOTE: Straight moves cost 1 and diagonal moves cost sqrt(2). A diagonal move is only made when both tiles beside it are open. <br>
+ * The target itself can be collidable, as exits are placed in the walls of the plane.
+ * A start on a collidable tile, such as the edge of a seat, first steps to its closest open neighbour
+ */
+
+public class FlowField {
+
+	//the cost of a straight and diagonal move
+	public static final float STRAIGHTCOST = 1.0f;
+	public static final float DIAGONALCOST = 1.41421356f;
+
+	//the column and row offset of each of the 8 directions
+	public static final int[] DX = {-1, 0, 1, -1, 1, -1, 0, 1};
+	public static final int[] DY = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+	//the direction value of a tile with no route to the target
+	public static final byte NODIRECTION = -1;
+
+	//the tileMapGenerator instance the field was built over
+	private TileMapGenerator generator;
+
+	//the width and height of the field
+	//NOTE: In TILE precision
+	private int width, height;
+
+	//the tile the field leads to
+	private int target;
+
+	//the distance from each tile to the target. Infinite if the target cannot be reached
+	private float[] distance;
+
+	//the direction (See: DX, DY) each tile steps in to move towards the target
+	private byte[] direction;
+
+	//the number of steps from each tile to the target
+	private int[] steps;
+
+	//constructor. Accepts: TileMapGenerator instance, the target in ABSOLUTE precision
+	public FlowField(TileMapGenerator generator, int targetX, int targetY){
+
+		//set the required variables
+		this.generator = generator;
+		width = generator.getWidth();
+		height = generator.getHeight();
+		target = tileIndex(targetX, targetY);
+
+		//create the fields
+		distance = new float[width * height];
+		direction = new byte[width * height];
+		steps = new int[width * height];
+
+		//build the field
+		generate(generator.getCollidable());
+	}
+
+	//builds the field with a Dijkstra search outwards from the target
+	private void generate(boolean[] collidable){
+
+		//initially, no tile can reach the target
+		for(int i = 0; i < distance.length; i++){
+			distance[i] = Float.POSITIVE_INFINITY;
+			direction[i] = NODIRECTION;
+		}
+
+		//if the target is not on the tilemap, nothing can reach it
+		if(target == -1) return;
+
+		//every tile that is being considered
+		IndexedHeap openList = new IndexedHeap(width * height);
+
+		//start at the target
+		distance[target] = 0;
+		steps[target] = 0;
+		openList.add(target, 0);
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//get the closest tile to the target
+			int current = openList.poll();
+			int column = current % width;
+			int row = current / width;
+
+			//loop all 8 neighbours
+			for(int d = 0; d < 8; d++){
+				int c = column + DX[d];
+				int r = row + DY[d];
+
+				//if the neighbour cannot move to the current tile, continue
+				if(!canMove(collidable, current, c, r, -DX[d], -DY[d])) continue;
+
+				//get the distance through the current tile
+				int next = c + r * width;
+				float cost = distance[current] + (DX[d] != 0 && DY[d] != 0 ? DIAGONALCOST : STRAIGHTCOST);
+
+				//if the neighbour is already as close, continue
+				if(cost >= distance[next]) continue;
+
+				//the neighbour steps back towards the current tile
+				distance[next] = cost;
+				direction[next] = (byte) (7 - d);
+				steps[next] = steps[current] + 1;
+
+				//add or re-position the neighbour in the open list
+				if(openList.contains(next)) openList.decreaseKey(next, cost);
+				else openList.add(next, cost);
+			}
+		}
+	}
+
+	//returns if a move from a tile to the destination tile, in the given direction, is possible
+	//NOTE: In TILE precision
+	private boolean canMove(boolean[] collidable, int destination, int column, int row, int dx, int dy){
+
+		//the tile must be on the tilemap and open
+		if(!isOpen(collidable, column, row)) return false;
+
+		//the destination must be open, unless it is the target
+		if(destination != target && collidable[destination]) return false;
+
+		//a diagonal move cannot cut a corner
+		if(dx != 0 && dy != 0){
+			if(!isOpen(collidable, column + dx, row)) return false;
+			if(!isOpen(collidable, column, row + dy)) return false;
+		}
+		return true;
+	}
+
+	//returns if a tile is on the tilemap and not collidable
+	private boolean isOpen(boolean[] collidable, int column, int row){
+		if(column < 0 || row < 0 || column >= width || row >= height) return false;
+		return !collidable[column + row * width];
+	}
+
+	//Traces the path from a start position to the target, following the field.
+	//The path is written to the given array from the target back to the first step, as packed coordinates (See: Vector2i.pack)
+	//Returns the length of the path, or -1 if the target cannot be reached
+	//NOTE: The positions in the path are a whole number of tiles from the start. The array must hold at least getSteps() values
+	public int trace(int startX, int startY, int[] path){
+
+		//get the start tile
+		int start = tileIndex(startX, startY);
+		if(start == -1) return -1;
+
+		//if the start is already at the target, the path is the start
+		if(start == target){
+			path[0] = Vector2i.pack(startX, startY);
+			return 1;
+		}
+
+		//get the tile the field is followed from
+		int current = entry(start);
+		if(current == -1) return -1;
+
+		//the tile position of the start
+		int startColumn = start % width;
+		int startRow = start / width;
+
+		//write the path from the back, as the field is followed from the start
+		int length = steps[current] + (current == start ? 0 : 1);
+		for(int i = length - 1; i >= 0; i--){
+
+			//step off the start, then in the direction of the field
+			if(i < length - 1 || current == start) current += DX[direction[current]] + DY[direction[current]] * width;
+
+			//get the absolute position of the step, relative to the start
+			int x = startX + (current % width - startColumn) * Tile.size;
+			int y = startY + (current / width - startRow) * Tile.size;
+			path[i] = Vector2i.pack(x, y);
+		}
+		return length;
+	}
+
+	//returns the number of steps from a position to the target, or -1 if the target cannot be reached
+	//NOTE: In ABSOLUTE precision
+	public int getSteps(int x, int y){
+
+		//get the tile
+		int start = tileIndex(x, y);
+		if(start == -1) return -1;
+		if(start == target) return 1;
+
+		//get the tile the field is followed from
+		int current = entry(start);
+		if(current == -1) return -1;
+		return steps[current] + (current == start ? 0 : 1);
+	}
+
+	//returns the tile the field is followed from for a start tile, or -1 if the target cannot be reached
+	//NOTE: A start with no direction steps to the neighbour closest to the target
+	private int entry(int start){
+
+		//if the start is part of the field, it is followed from the start
+		if(direction[start] != NODIRECTION) return start;
+
+		//find the closest neighbour
+		int column = start % width;
+		int row = start / width;
+		int closest = -1;
+		float best = Float.POSITIVE_INFINITY;
+		for(int d = 0; d < 8; d++){
+			int c = column + DX[d];
+			int r = row + DY[d];
+			if(c < 0 || r < 0 || c >= width || r >= height) continue;
+
+			//the distance through the neighbour
+			int next = c + r * width;
+			float cost = distance[next] + (DX[d] != 0 && DY[d] != 0 ? DIAGONALCOST : STRAIGHTCOST);
+			if(cost < best){
+				best = cost;
+				closest = next;
+			}
+		}
+		return closest;
+	}
+
+	//returns the distance from a position to the target, or infinity if the target cannot be reached
+	//NOTE: In ABSOLUTE precision
+	public float getDistance(int x, int y){
+		int index = tileIndex(x, y);
+		if(index == -1) return Float.POSITIVE_INFINITY;
+		return distance[index];
+	}
+
+	//returns the distance from each tile to the target, indexed the same as the tilemap
+	public float[] getDistances(){
+		return distance;
+	}
+
+	//returns the direction each tile steps in, indexed the same as the tilemap
+	public byte[] getDirections(){
+		return direction;
+	}
+
+	//returns the tile the field leads to
+	public int getTarget(){
+		return target;
+	}
+
+	//returns the tile index of a absolute position, or -1 if the position is not on the tilemap
+	private int tileIndex(int x, int y){
+		if(x < generator.getMinX() || y < generator.getMinY()) return -1;
+		int column = (x - generator.getMinX()) / Tile.size;
+		int row = (y - generator.getMinY()) / Tile.size;
+		if(column >= width || row >= height) return -1;
+		return column + row * width;
+	}
+
+}
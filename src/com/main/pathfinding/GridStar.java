@@ -0,0 +1,192 @@
+package com.main.pathfinding;
+
+import java.util.Arrays;
+
+import com.main.util.IndexedHeap;
+import com.main.util.Vector2i;
+
+/**
+ * Handles the A* pathfinding algorithm without allocating objects. <br>
+ * The cost, parent and state of every node live in arrays indexed by node, that are re-used between searches.
+ * Paths are returned as packed integer coordinates (See: Vector2i.pack). <br>
+ * Produces the same paths as Star.java.
+ */
+
+public class GridStar implements PathFinder {
+
+	//the cost of moving to any neighbouring tile
+	//NOTE: Matches Star.java, where both straight and diagonal moves cost 0.95
+	private static final double MOVECOST = 0.95;
+
+	//holds if each tile is collidable (See: TileMapGenerator.java)
+	private boolean[] collidable;
+
+	//the width of the tilemap
+	//NOTE: In TILE precision
+	private int width;
+
+	//the tileMapGenerator instance
+	private TileMapGenerator generator;
+
+	//the number of node columns. Nodes are one column and row wider than the tilemap (See: Star.nodeIndex)
+	private int columns;
+
+	//every node that is being considered, keyed by node index
+	private IndexedHeap openList;
+
+	//the gCost and parent of each node. A parent of -1 marks the start node
+	private double[] gCost;
+	private int[] parent;
+
+	//the search in which each node was closed
+	private int[] closed;
+
+	//the current search
+	private int search = 0;
+
+	//the absolute position of node (0, 0) and the largest node column and row for the current search
+	private int originX, originY, maxColumn, maxRow;
+
+	//the last path found, from the goal to the first step, as packed coordinates
+	private int[] path = new int[64];
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	public GridStar(TileMapGenerator generator){
+
+		//set the required variables
+		this.generator = generator;
+		collidable = generator.getCollidable();
+		width = generator.getWidth();
+		columns = width + 1;
+
+		//create the search buffers
+		int capacity = columns * (generator.getHeight() + 1);
+		openList = new IndexedHeap(capacity);
+		gCost = new double[capacity];
+		parent = new int[capacity];
+		closed = new int[capacity];
+	}
+
+	//Finds a new path given a start and finish, in ABSOLUTE precision
+	//Returns the length of the path written to getPath(), or -1 if no path can be found
+	public int findPath(int startX, int startY, int goalX, int goalY){
+
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
+
+		//if the start is already at the goal, the path is the start
+		if(startX == goalX && startY == goalY){
+			path[0] = Vector2i.pack(startX, startY);
+			return 1;
+		}
+
+		//if the start is not on the tilemap, no path can be found
+		if(!inBounds(startX, startY)) return -1;
+
+		//only positions a whole number of tiles from the start can be reached
+		if((goalX - startX) % Tile.size != 0 || (goalY - startY) % Tile.size != 0) return -1;
+		if(!inBounds(goalX, goalY)) return -1;
+
+		//get the node column and row of the start
+		int startColumn = (startX - generator.getMinX()) / Tile.size;
+		int startRow = (startY - generator.getMinY()) / Tile.size;
+
+		//set the absolute position of node (0, 0), and the largest column and row still in bounds
+		originX = startX - startColumn * Tile.size;
+		originY = startY - startRow * Tile.size;
+		maxColumn = (generator.getMaxX() - originX) / Tile.size;
+		maxRow = (generator.getMaxY() - originY) / Tile.size;
+
+		//get the goal node
+		int goalColumn = (goalX - originX) / Tile.size;
+		int goalRow = (goalY - originY) / Tile.size;
+		int goal = goalColumn + goalRow * columns;
+
+		//add the start node to the open list
+		int start = startColumn + startRow * columns;
+		gCost[start] = 0;
+		parent[start] = -1;
+		openList.add(start, heuristic(startColumn, startRow, goalColumn, goalRow));
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//gets the node with the lowest fCost, removing it from the open list and closing it
+			int current = openList.poll();
+			closed[current] = search;
+
+			//if the current node is the goal, retrace the path
+			if(current == goal) return retrace(current);
+
+			//get the column and row of the current node
+			int column = current % columns;
+			int row = current / columns;
+
+			for(int i = 0; i < 9; i++){ //checks all nodes, 4 is the middle
+				if(i == 4) continue;
+
+				//produces a quadrant-checking like system, starting from the top left, reaching the bottom right
+				int c = column + (i % 3) - 1;
+				int r = row + (i / 3) - 1;
+
+				//if the node exceeds bounds, continue
+				if(c < 0 || r < 0 || c > maxColumn || r > maxRow) continue;
+
+				//if the tile is collidable, also continue
+				//NOTE: The tile is found the same way as Star.getTile. A node past the last tile is treated as collidable
+				int tile = c + r * width;
+				if(tile >= collidable.length || collidable[tile]) continue;
+
+				//if the node has already been processed, or is already being considered, continue
+				int next = c + r * columns;
+				if(closed[next] == search || openList.contains(next)) continue;
+
+				//set the node data and add it to the open list
+				gCost[next] = gCost[current] + MOVECOST;
+				parent[next] = current;
+				openList.add(next, gCost[next] + heuristic(c, r, goalColumn, goalRow));
+			}
+		}
+
+		//if no path is found
+		return -1;
+	}
+
+	//returns the last path found, from the goal to the first step, as packed coordinates
+	//NOTE: The array is re-used by the next search
+	public int[] getPath(){
+		return path;
+	}
+
+	//writes the path ending at the given node to the path buffer, returning its length
+	private int retrace(int node){
+		int length = 0;
+
+		//retrace steps from the finish to the start, not including the start
+		while(parent[node] != -1){
+
+			//grow the path buffer if required
+			if(length == path.length) path = Arrays.copyOf(path, length * 2);
+
+			path[length++] = Vector2i.pack(originX + (node % columns) * Tile.size, originY + (node / columns) * Tile.size);
+			node = parent[node];
+		}
+		return length;
+	}
+
+	//the straight line distance between two nodes, in ABSOLUTE precision
+	//NOTE: Matches Vector2i.getDistance, as used by Star.java
+	private double heuristic(int column, int row, int goalColumn, int goalRow){
+		double dx = (column - goalColumn) * Tile.size;
+		double dy = (row - goalRow) * Tile.size;
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	//returns if a absolute position is within the tilemap bounds
+	private boolean inBounds(int x, int y){
+		return x >= generator.getMinX() && x <= generator.getMaxX() && y >= generator.getMinY() && y <= generator.getMaxY();
+	}
+
+}
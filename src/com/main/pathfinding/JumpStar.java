@@ -0,0 +1,235 @@
+package com.main.pathfinding;
+
+import com.main.util.IndexedHeap;
+
+/**
+ * Handles Jump Point Search, a A* search that skips the tiles along straight and diagonal runs of open tiles. <br>
+ * From each node, the search jumps in a direction until it reaches a node with a neighbour that cannot be reached as cheaply
+ * without passing through it (a forced neighbour), or the goal. Only those jump points are added to the open list,
+ * so open areas such as the aisles and galleys cost a few nodes instead of every tile. <br>
+ * The distance of each jump is precomputed (JPS+, See: JumpTable.java), so a jump is a lookup, and only the goal is checked against it.
+ * <ul>
+ * 	<li> Moves cost their octile distance, and never cut the corner of a collidable tile (See: OctileGrid.java)
+ * 	<li> The path between jump points is filled in, so the path is a step to every tile, as with GridStar.java
+ * </ul>
+ * NOTE: The paths are optimal for these costs, which differ from the uniform move cost of Star.java and GridStar.java, so the paths differ from theirs
+ */
+
+public class JumpStar extends OctileStar {
+
+	//every jump point that is being considered, keyed by node index
+	private IndexedHeap openList;
+
+	//the gCost and parent of each jump point. A parent of -1 marks the start node
+	private double[] gCost;
+	private int[] parent;
+
+	//the search in which each node was closed
+	private int[] closed;
+
+	//the current search
+	private int search = 0;
+
+	//the goal column and row for the current search
+	private int goalColumn, goalRow;
+
+	//the jump distances of the current search, and the tables already fetched from the tilemap, by node bound (See: TileMapGenerator.getJumpTable)
+	private JumpTable table;
+	private JumpTable[] tables = new JumpTable[4];
+
+	//the directions to jump in from the current node, and the number of directions
+	private int[] directionX = new int[8], directionY = new int[8];
+	private int directions;
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	public JumpStar(TileMapGenerator generator){
+		super(generator);
+
+		//create the search buffers
+		int capacity = grid.getCapacity();
+		openList = new IndexedHeap(capacity);
+		gCost = new double[capacity];
+		parent = new int[capacity];
+		closed = new int[capacity];
+	}
+
+	//searches from a start node to a open goal node, writing the path with addStep
+	//Returns the length of the path, or -1 if no path can be found
+	protected int search(int start, int goal){
+
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
+		goalColumn = goal % columns;
+		goalRow = goal / columns;
+
+		//get the jump distances for the bounds of the search
+		int bound = generator.getBound(grid.getMaxColumn(), grid.getMaxRow());
+		if(tables[bound] == null) tables[bound] = generator.getJumpTable(grid.getMaxColumn(), grid.getMaxRow());
+		table = tables[bound];
+
+		//add the start node to the open list
+		gCost[start] = 0;
+		parent[start] = -1;
+		openList.add(start, OctileGrid.heuristic(start % columns, start / columns, goalColumn, goalRow));
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//gets the node with the lowest fCost, removing it from the open list and closing it
+			int current = openList.poll();
+			closed[current] = search;
+
+			//if the current node is the goal, retrace the path
+			if(current == goal) return retrace(current);
+
+			//jump in each direction worth searching from the current node
+			int column = current % columns;
+			int row = current / columns;
+			findDirections(current, column, row);
+			for(int i = 0; i < directions; i++){
+				int dx = directionX[i], dy = directionY[i];
+
+				//jump to the next jump point in the direction, if there is one
+				int next = (dx != 0 && dy != 0) ? jumpDiagonal(column, row, dx, dy) : jumpStraight(column, row, dx, dy);
+				if(next == -1 || closed[next] == search) continue;
+
+				//the cost of the jump is the octile distance between the two nodes
+				double g = gCost[current] + OctileGrid.heuristic(column, row, next % columns, next / columns);
+
+				//add the jump point, or lower its cost if this jump reaches it more cheaply
+				if(!openList.contains(next)){
+					gCost[next] = g;
+					parent[next] = current;
+					openList.add(next, g + OctileGrid.heuristic(next % columns, next / columns, goalColumn, goalRow));
+				}else if(g < gCost[next]){
+					gCost[next] = g;
+					parent[next] = current;
+					openList.decreaseKey(next, g + OctileGrid.heuristic(next % columns, next / columns, goalColumn, goalRow));
+				}
+			}
+		}
+
+		//if no path is found
+		return -1;
+	}
+
+	//finds the directions worth jumping in from a node, given the direction the node was reached from
+	//NOTE: Directions that a path could reach as cheaply without passing through the node are pruned
+	private void findDirections(int node, int column, int row){
+		directions = 0;
+
+		//the start node jumps in every open direction
+		if(parent[node] == -1){
+			for(int dy = -1; dy <= 1; dy++){
+				for(int dx = -1; dx <= 1; dx++){
+					if(dx == 0 && dy == 0) continue;
+					if(grid.canMove(column, row, dx, dy)) addDirection(dx, dy);
+				}
+			}
+			return;
+		}
+
+		//get the direction the node was reached from
+		int dx = Integer.signum(column - parent[node] % columns);
+		int dy = Integer.signum(row - parent[node] / columns);
+
+		//moving diagonally, continue straight along both axes, and diagonally if both are open
+		if(dx != 0 && dy != 0){
+			if(grid.walkable(column, row + dy)) addDirection(0, dy);
+			if(grid.walkable(column + dx, row)) addDirection(dx, 0);
+			if(grid.canMove(column, row, dx, dy)) addDirection(dx, dy);
+			return;
+		}
+
+		//moving straight, continue ahead, and turn to either side that is open
+		//NOTE: Without corner cutting, a open side can be a forced neighbour, so the diagonals beside the move are also searched
+		int sideX = dy, sideY = dx;
+		boolean ahead = grid.walkable(column + dx, row + dy);
+		boolean left = grid.walkable(column + sideX, row + sideY);
+		boolean right = grid.walkable(column - sideX, row - sideY);
+		if(ahead){
+			addDirection(dx, dy);
+			if(left) addDirection(dx + sideX, dy + sideY);
+			if(right) addDirection(dx - sideX, dy - sideY);
+		}
+		if(left) addDirection(sideX, sideY);
+		if(right) addDirection(-sideX, -sideY);
+	}
+
+	//adds a direction to jump in from the current node
+	private void addDirection(int dx, int dy){
+		directionX[directions] = dx;
+		directionY[directions] = dy;
+		directions++;
+	}
+
+	//jumps straight from a node, returning the next jump point, or -1 if the jump reaches a collidable tile
+	//NOTE: The goal is a jump point wherever the jump passes it
+	private int jumpStraight(int column, int row, int dx, int dy){
+		int jump = table.getDistance(dx, dy)[column + row * columns];
+
+		//stop at the goal if it lies ahead, before the jump ends
+		int ahead = goalAhead(column, row, dx, dy);
+		if(ahead > 0 && ahead <= Math.abs(jump)) return goalColumn + goalRow * columns;
+
+		if(jump <= 0) return -1;
+		return (column + dx * jump) + (row + dy * jump) * columns;
+	}
+
+	//jumps diagonally from a node, returning the next jump point, or -1 if the jump is blocked
+	//NOTE: A node is a jump point if a straight jump along either axis from it finds a jump point, including the goal
+	private int jumpDiagonal(int column, int row, int dx, int dy){
+		int jump = table.getDistance(dx, dy)[column + row * columns];
+		int reach = Math.abs(jump);
+		int steps = jump > 0 ? jump : Integer.MAX_VALUE;
+
+		//the node in line with the goal row, if a straight jump along x from it reaches the goal
+		int toRow = (goalRow - row) * dy;
+		if(toRow > 0 && toRow <= reach && toRow < steps){
+			int c = column + dx * toRow;
+			int ahead = (goalColumn - c) * dx;
+			if(ahead == 0 || (ahead > 0 && ahead <= Math.abs(table.getDistance(dx, 0)[c + goalRow * columns]))) steps = toRow;
+		}
+
+		//the node in line with the goal column, if a straight jump along y from it reaches the goal
+		int toColumn = (goalColumn - column) * dx;
+		if(toColumn > 0 && toColumn <= reach && toColumn < steps){
+			int r = row + dy * toColumn;
+			int ahead = (goalRow - r) * dy;
+			if(ahead == 0 || (ahead > 0 && ahead <= Math.abs(table.getDistance(0, dy)[goalColumn + r * columns]))) steps = toColumn;
+		}
+
+		if(steps == Integer.MAX_VALUE) return -1;
+		return (column + dx * steps) + (row + dy * steps) * columns;
+	}
+
+	//returns the number of steps to the goal along a straight direction, or 0 if the goal is not ahead in the direction
+	private int goalAhead(int column, int row, int dx, int dy){
+		if(dy == 0) return goalRow == row ? Math.max((goalColumn - column) * dx, 0) : 0;
+		return goalColumn == column ? Math.max((goalRow - row) * dy, 0) : 0;
+	}
+
+	//writes the path ending at the given node to the path buffer, filling in every tile between the jump points, and returns its length
+	private int retrace(int node){
+		int length = 0;
+
+		//retrace steps from the finish to the start, not including the start
+		while(parent[node] != -1){
+
+			//step from the node back towards its parent, one tile at a time
+			int column = node % columns, row = node / columns;
+			int parentColumn = parent[node] % columns, parentRow = parent[node] / columns;
+			int dx = Integer.signum(parentColumn - column), dy = Integer.signum(parentRow - row);
+			while(column != parentColumn || row != parentRow){
+				length = addStep(column + row * columns, length);
+				column += dx;
+				row += dy;
+			}
+			node = parent[node];
+		}
+		return length;
+	}
+
+}
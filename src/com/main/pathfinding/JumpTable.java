@@ -0,0 +1,94 @@
+package com.main.pathfinding;
+
+/**
+ * The jump distances of every node of a tilemap in each of the 8 directions, for Jump Point Search with precomputed jumps (JPS+, See: JumpStar.java). <br>
+ * A positive distance is the number of steps to the next jump point in the direction, found without a goal.
+ * Any other distance is the number of open steps before a collidable tile, negated, so a search only needs to check the goal against it.
+ * Jumps during a search are then a lookup, instead of a scan of every tile along the jump.
+ * <ul>
+ * 	<li> A straight jump stops at a node with a open side beside a tile that was collidable behind it (a forced neighbour)
+ * 	<li> A diagonal jump stops at a node from which a straight jump along either axis finds a jump point
+ * </ul>
+ * NOTE: The tables are never changed once built, so they are shared by every planner over the tilemap (See: TileMapGenerator.getJumpTable). <br>
+ * The tables are held in node columns and rows, so they fit any search origin with the same largest node column and row
+ */
+
+public class JumpTable {
+
+	//the node grid and its moves
+	private OctileGrid grid;
+
+	//the number of node columns
+	private int columns;
+
+	//the jump distance of each node, by direction index (See: direction)
+	private int[][] distance = new int[9][];
+
+	//constructor. Builds the tables
+	//Accepts: TileMapGenerator instance, the largest node column and row of the searches using the tables
+	public JumpTable(TileMapGenerator generator, int maxColumn, int maxRow){
+		grid = new OctileGrid(generator);
+		grid.setBounds(maxColumn, maxRow);
+		columns = grid.getColumns();
+		int capacity = grid.getCapacity();
+
+		//the straight jumps are found first, as the diagonal jumps stop where a straight jump finds a jump point
+		for(int pass = 0; pass < 2; pass++){
+			for(int dy = -1; dy <= 1; dy++){
+				for(int dx = -1; dx <= 1; dx++){
+					boolean diagonal = dx != 0 && dy != 0;
+					if((dx == 0 && dy == 0) || diagonal != (pass == 1)) continue;
+					int[] jumps = new int[capacity];
+					for(int row = 0; row <= maxRow; row++){
+						for(int column = 0; column <= maxColumn; column++){
+							jumps[column + row * columns] = diagonal ? jumpDiagonal(column, row, dx, dy) : jumpStraight(column, row, dx, dy);
+						}
+					}
+					distance[direction(dx, dy)] = jumps;
+				}
+			}
+		}
+	}
+
+	//returns the jump distance from a straight scan, or the open steps before a collidable tile negated
+	private int jumpStraight(int column, int row, int dx, int dy){
+
+		//the sides of the move
+		int sideX = dy, sideY = dx;
+		for(int steps = 1; ; steps++){
+			column += dx;
+			row += dy;
+			if(!grid.walkable(column, row)) return 1 - steps;
+
+			//a open side beside a tile that was collidable behind it is a forced neighbour
+			if((grid.walkable(column + sideX, row + sideY) && !grid.walkable(column + sideX - dx, row + sideY - dy))
+					|| (grid.walkable(column - sideX, row - sideY) && !grid.walkable(column - sideX - dx, row - sideY - dy))){
+				return steps;
+			}
+		}
+	}
+
+	//returns the jump distance from a diagonal scan, or the open steps before a move is blocked negated
+	//NOTE: Uses the straight tables, so they must be built first
+	private int jumpDiagonal(int column, int row, int dx, int dy){
+		int[] alongX = distance[direction(dx, 0)], alongY = distance[direction(0, dy)];
+		for(int steps = 1; ; steps++){
+			if(!grid.canMove(column, row, dx, dy)) return 1 - steps;
+			column += dx;
+			row += dy;
+			int node = column + row * columns;
+			if(alongX[node] > 0 || alongY[node] > 0) return steps;
+		}
+	}
+
+	//returns the jump distances of each node in a direction, indexed by node
+	public int[] getDistance(int dx, int dy){
+		return distance[direction(dx, dy)];
+	}
+
+	//returns the index of a direction, from 0 to 8, where 4 is no direction
+	private static int direction(int dx, int dy){
+		return (dx + 1) + (dy + 1) * 3;
+	}
+
+}
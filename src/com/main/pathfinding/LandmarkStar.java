@@ -0,0 +1,167 @@
+package com.main.pathfinding;
+
+import com.main.util.IndexedHeap;
+
+/**
+ * Handles the A* pathfinding algorithm with ALT (A*, Landmarks, Triangle inequality) heuristics (See: Landmarks.java). <br>
+ * The heuristic of a node is the largest of its octile distance to the goal and the landmark bounds.
+ * Every bound is a lower bound on the real cost, so the paths stay optimal, but the search no longer floods the areas
+ * behind walls and seat rows that the straight line distance makes look close. <br>
+ * With the exits as landmarks (See: CabinLayout.getTileMap), a goal at a exit has a exact heuristic, so the search only expands the nodes of its path.
+ * <ul>
+ * 	<li> Moves cost their octile distance, and never cut the corner of a collidable tile (See: OctileGrid.java)
+ * 	<li> Produces paths of the same cost as JumpStar.java
+ * </ul>
+ * NOTE: The distance tables are shared, and only the search state is held per planner
+ */
+
+public class LandmarkStar extends OctileStar {
+
+	//the heuristic is raised by this fraction, so of nodes with the same fCost, the one closest to the goal is expanded first
+	//NOTE: With a exact heuristic, every node on a optimal path has the same fCost. The raise is far below the cost difference of any two paths
+	private static final double TIEBREAK = 1e-9;
+
+	//the distance tables of the current search, and the tables already fetched from the tilemap, by node bound (See: TileMapGenerator.getLandmarks)
+	private Landmarks landmarks;
+	private Landmarks[] tables = new Landmarks[4];
+
+	//the distance tables of the landmarks that reach the goal, their distance to the goal, and the number of them
+	private double[][] activeDistance;
+	private double[] goalDistance;
+	private int active;
+
+	//every node that is being considered, keyed by node index
+	private IndexedHeap openList;
+
+	//the gCost and parent of each node. A parent of -1 marks the start node
+	private double[] gCost;
+	private int[] parent;
+
+	//the search in which each node was reached, and in which it was closed
+	private int[] reached, closed;
+
+	//the current search
+	private int search = 0;
+
+	//the goal column and row for the current search
+	private int goalColumn, goalRow;
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	public LandmarkStar(TileMapGenerator generator){
+		super(generator);
+
+		//create the search buffers
+		int capacity = grid.getCapacity();
+		openList = new IndexedHeap(capacity);
+		gCost = new double[capacity];
+		parent = new int[capacity];
+		reached = new int[capacity];
+		closed = new int[capacity];
+	}
+
+	//searches from a start node to a open goal node, writing the path with addStep
+	//Returns the length of the path, or -1 if no path can be found
+	protected int search(int start, int goal){
+
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
+		goalColumn = goal % columns;
+		goalRow = goal / columns;
+
+		//keep the landmarks that reach the goal, as only they give bounds for this search
+		useLandmarks(goal);
+
+		//add the start node to the open list
+		gCost[start] = 0;
+		parent[start] = -1;
+		reached[start] = search;
+		openList.add(start, heuristic(start));
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//gets the node with the lowest fCost, removing it from the open list and closing it
+			int current = openList.poll();
+			closed[current] = search;
+
+			//if the current node is the goal, retrace the path
+			if(current == goal) return retrace(current);
+
+			//get the column and row of the current node
+			int column = current % columns;
+			int row = current / columns;
+
+			for(int i = 0; i < 9; i++){ //checks all nodes, 4 is the middle
+				if(i == 4) continue;
+				int dx = (i % 3) - 1, dy = (i / 3) - 1;
+
+				//if the move is not possible, or the node has already been processed, continue
+				if(!grid.canMove(column, row, dx, dy)) continue;
+				int next = (column + dx) + (row + dy) * columns;
+				if(closed[next] == search) continue;
+
+				//add the node, or lower its cost if this move reaches it more cheaply
+				double g = gCost[current] + ((dx != 0 && dy != 0) ? OctileGrid.DIAGONAL : OctileGrid.STRAIGHT);
+				if(reached[next] != search){
+					gCost[next] = g;
+					parent[next] = current;
+					reached[next] = search;
+					openList.add(next, g + heuristic(next));
+				}else if(g < gCost[next]){
+					gCost[next] = g;
+					parent[next] = current;
+					openList.decreaseKey(next, g + heuristic(next));
+				}
+			}
+		}
+
+		//if no path is found
+		return -1;
+	}
+
+	//sets the distance tables for the bounds of the search, keeping the landmarks that reach the goal
+	private void useLandmarks(int goal){
+		int bound = generator.getBound(grid.getMaxColumn(), grid.getMaxRow());
+		if(tables[bound] == null) tables[bound] = generator.getLandmarks(grid.getMaxColumn(), grid.getMaxRow());
+		landmarks = tables[bound];
+		if(activeDistance == null || activeDistance.length < landmarks.size()){
+			activeDistance = new double[landmarks.size()][];
+			goalDistance = new double[landmarks.size()];
+		}
+
+		active = 0;
+		for(int i = 0; i < landmarks.size(); i++){
+			double[] distance = landmarks.getDistance(i);
+			if(distance[goal] == Double.POSITIVE_INFINITY) continue;
+			activeDistance[active] = distance;
+			goalDistance[active] = distance[goal];
+			active++;
+		}
+	}
+
+	//the heuristic of a node: the largest of its octile distance to the goal and the landmark bounds, in ABSOLUTE precision
+	//NOTE: A landmark that cannot reach the node gives no bound
+	private double heuristic(int node){
+		double h = OctileGrid.heuristic(node % columns, node / columns, goalColumn, goalRow);
+		for(int i = 0; i < active; i++){
+			double distance = activeDistance[i][node];
+			if(distance != Double.POSITIVE_INFINITY) h = Math.max(h, Math.abs(distance - goalDistance[i]));
+		}
+		return h * (1 + TIEBREAK);
+	}
+
+	//writes the path ending at the given node to the path buffer, returning its length
+	private int retrace(int node){
+		int length = 0;
+
+		//retrace steps from the finish to the start, not including the start
+		while(parent[node] != -1){
+			length = addStep(node, length);
+			node = parent[node];
+		}
+		return length;
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.main.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.main.util.Vector2i;
+
+/**
+ * Exact distance tables from a few landmark nodes of a tilemap, used for ALT heuristics (See: LandmarkStar.java). <br>
+ * By the triangle inequality, the cost from a node to a goal is at least the difference of their distances from any landmark.
+ * Unlike the straight line distance, this bound follows the walls and seat rows, so it stays close to the real cost. <br>
+ * NOTE: The distances are built with a Dijkstra search over the whole tilemap, with the moves of OctileGrid.java,
+ * so the bounds only hold for planners with the same moves and costs. A landmark that cannot reach a node gives no bound for it
+ */
+
+public class Landmarks {
+
+	//the landmark nodes
+	private int[] nodes;
+
+	//the distance from each landmark to each node, in ABSOLUTE precision. Infinite if the node cannot be reached
+	private double[][] distance;
+
+	//constructor. Builds the distance tables
+	//Accepts: TileMapGenerator instance, the absolute positions of the landmarks, the largest node column and row of the searches using the tables
+	public Landmarks(TileMapGenerator generator, List<Vector2i> positions, int maxColumn, int maxRow){
+		OctileGrid grid = new OctileGrid(generator);
+		grid.setBounds(maxColumn, maxRow);
+		ZoneSearch search = new ZoneSearch(grid);
+		int columns = grid.getColumns();
+		int capacity = grid.getCapacity();
+
+		//find the node of each landmark, skipping positions outside the node bounds and positions sharing a node
+		//NOTE: Nodes count whole tiles from the tilemap minimum, so a landmark is the node of any goal fitted to it (See: GridStar.findPath)
+		List<Integer> found = new ArrayList<Integer>();
+		for(Vector2i position : positions){
+			if(position.getX() < generator.getMinX() || position.getY() < generator.getMinY()) continue;
+			int column = (position.getX() - generator.getMinX()) / Tile.size;
+			int row = (position.getY() - generator.getMinY()) / Tile.size;
+			if(column > maxColumn || row > maxRow) continue;
+			Integer node = column + row * columns;
+			if(!found.contains(node)) found.add(node);
+		}
+
+		//search outwards from each landmark, keeping the cost to every node
+		nodes = new int[found.size()];
+		distance = new double[found.size()][capacity];
+		for(int i = 0; i < nodes.length; i++){
+			nodes[i] = found.get(i);
+			search.search(nodes[i], -1, 0, 0, maxColumn, maxRow);
+			for(int node = 0; node < capacity; node++){
+				distance[i][node] = search.getCost(node);
+			}
+		}
+	}
+
+	//returns the number of landmarks
+	public int size(){
+		return nodes.length;
+	}
+
+	//returns the node of a landmark
+	public int getNode(int landmark){
+		return nodes[landmark];
+	}
+
+	//returns the distance from a landmark to each node, indexed by node
+	public double[] getDistance(int landmark){
+		return distance[landmark];
+	}
+
+}
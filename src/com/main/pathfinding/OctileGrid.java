@@ -0,0 +1,84 @@
+package com.main.pathfinding;
+
+/**
+ * The tile nodes of a tilemap, with the moves shared by the octile planners (See: OctileStar.java, ZoneSearch.java). <br>
+ * Moves cost their octile distance: a straight move costs Tile.size, a diagonal move Tile.size * sqrt(2).
+ * A diagonal move is only made if both straight moves beside it are open, so paths never cut the corner of a collidable tile. <br>
+ * NOTE: The bounds are set per search, as they depend on the search origin (See: OctileStar.findPath)
+ */
+
+class OctileGrid {
+
+	//the cost of a straight and of a diagonal move, in ABSOLUTE precision
+	static final double STRAIGHT = Tile.size, DIAGONAL = Tile.size * Math.sqrt(2);
+
+	//holds if each tile is collidable (See: TileMapGenerator.java)
+	private boolean[] collidable;
+
+	//the width of the tilemap
+	//NOTE: In TILE precision
+	private int width;
+
+	//the number of node columns, and the number of nodes. Nodes are one column and row wider than the tilemap (See: Star.nodeIndex)
+	private int columns, capacity;
+
+	//the largest node column and row on the tilemap
+	private int maxColumn, maxRow;
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	OctileGrid(TileMapGenerator generator){
+		collidable = generator.getCollidable();
+		width = generator.getWidth();
+		columns = width + 1;
+		capacity = columns * (generator.getHeight() + 1);
+	}
+
+	//sets the largest node column and row on the tilemap, as found from the origin of a search (See: OctileStar.findPath)
+	void setBounds(int maxColumn, int maxRow){
+		this.maxColumn = maxColumn;
+		this.maxRow = maxRow;
+	}
+
+	//returns if a move from a node in a direction is possible. A diagonal move needs both straight moves beside it to be open
+	boolean canMove(int column, int row, int dx, int dy){
+		if(!walkable(column + dx, row + dy)) return false;
+		if(dx != 0 && dy != 0) return walkable(column + dx, row) && walkable(column, row + dy);
+		return true;
+	}
+
+	//returns if a node can be stood on
+	//NOTE: Nodes are one column and row wider than the tilemap, and a node past the last tile column or row has no tile, so is collidable
+	boolean walkable(int column, int row){
+		if(column < 0 || row < 0 || column > maxColumn || row > maxRow || column >= width) return false;
+		int tile = column + row * width;
+		return tile < collidable.length && !collidable[tile];
+	}
+
+	//returns the number of node columns
+	int getColumns(){
+		return columns;
+	}
+
+	//returns the number of nodes, the size of a buffer indexed by node
+	int getCapacity(){
+		return capacity;
+	}
+
+	//returns the largest node column and row
+	int getMaxColumn(){
+		return maxColumn;
+	}
+
+	int getMaxRow(){
+		return maxRow;
+	}
+
+	//the octile distance between two nodes, in ABSOLUTE precision
+	static double heuristic(int column, int row, int goalColumn, int goalRow){
+		int dx = Math.abs(column - goalColumn);
+		int dy = Math.abs(row - goalRow);
+		return Math.abs(dx - dy) * STRAIGHT + Math.min(dx, dy) * DIAGONAL;
+	}
+
+}
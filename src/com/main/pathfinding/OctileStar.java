@@ -0,0 +1,95 @@
+package com.main.pathfinding;
+
+import java.util.Arrays;
+
+import com.main.util.Vector2i;
+
+/**
+ * The base of the planners that search with octile moves (See: OctileGrid.java). <br>
+ * Checks the start and goal of a path, fits the node grid to the start, and hands the start and goal nodes to the search of the planner.
+ * The planner writes its path to the shared path buffer, from the goal to the first step (See: addStep). <br>
+ * NOTE: Extended by JumpStar.java, ZoneStar.java, LandmarkStar.java and ResumableStar.java
+ */
+
+public abstract class OctileStar implements PathFinder {
+
+	//the tileMapGenerator instance
+	protected final TileMapGenerator generator;
+
+	//the node grid and its moves
+	final OctileGrid grid;
+
+	//the number of node columns
+	protected final int columns;
+
+	//the absolute position of node (0, 0) for the current search
+	protected int originX, originY;
+
+	//the last path found, from the goal to the first step, as packed coordinates
+	private int[] path = new int[64];
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	protected OctileStar(TileMapGenerator generator){
+		this.generator = generator;
+		grid = new OctileGrid(generator);
+		columns = grid.getColumns();
+	}
+
+	//Finds a new path given a start and finish, in ABSOLUTE precision
+	//Returns the length of the path written to getPath(), or -1 if no path can be found
+	public final int findPath(int startX, int startY, int goalX, int goalY){
+
+		//if the start is already at the goal, the path is the start
+		if(startX == goalX && startY == goalY){
+			path[0] = Vector2i.pack(startX, startY);
+			return 1;
+		}
+
+		//if the start is not on the tilemap, no path can be found
+		if(!inBounds(startX, startY)) return -1;
+
+		//only positions a whole number of tiles from the start can be reached
+		if((goalX - startX) % Tile.size != 0 || (goalY - startY) % Tile.size != 0) return -1;
+		if(!inBounds(goalX, goalY)) return -1;
+
+		//get the node column and row of the start
+		int startColumn = (startX - generator.getMinX()) / Tile.size;
+		int startRow = (startY - generator.getMinY()) / Tile.size;
+
+		//set the absolute position of node (0, 0), and the largest column and row still in bounds
+		originX = startX - startColumn * Tile.size;
+		originY = startY - startRow * Tile.size;
+		grid.setBounds((generator.getMaxX() - originX) / Tile.size, (generator.getMaxY() - originY) / Tile.size);
+
+		//get the goal node. The goal must be open, as in GridStar.java
+		int goalColumn = (goalX - originX) / Tile.size;
+		int goalRow = (goalY - originY) / Tile.size;
+		if(!grid.walkable(goalColumn, goalRow)) return -1;
+
+		return search(startColumn + startRow * columns, goalColumn + goalRow * columns);
+	}
+
+	//searches from a start node to a open goal node, writing the path with addStep
+	//Returns the length of the path, or -1 if no path can be found
+	protected abstract int search(int start, int goal);
+
+	//writes a node to the path buffer at a index, growing the buffer if required, and returns the index after it
+	protected int addStep(int node, int index){
+		if(index >= path.length) path = Arrays.copyOf(path, Math.max(index + 1, path.length * 2));
+		path[index] = Vector2i.pack(originX + (node % columns) * Tile.size, originY + (node / columns) * Tile.size);
+		return index + 1;
+	}
+
+	//returns the last path found, from the goal to the first step, as packed coordinates
+	//NOTE: The array is re-used by the next search
+	public int[] getPath(){
+		return path;
+	}
+
+	//returns if a absolute position is within the tilemap bounds
+	private boolean inBounds(int x, int y){
+		return x >= generator.getMinX() && x <= generator.getMaxX() && y >= generator.getMinY() && y <= generator.getMaxY();
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.main.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.main.util.Vector2i;
+
+/**
+ * A bounded cache of the paths found by a planner, keyed by start and goal, shared by every planner over a tilemap (See: CachedPathFinder.java). <br>
+ * Passengers in the same seat row, and the same seats in each run of a batch, search from the same tiles to the same exits,
+ * so most searches after the first are found in the cache. Once full, the path used least recently is dropped.
+ * <ul>
+ * 	<li> The start is a exact position fitted to the goal, so it is the tile the search starts on (See: Passenger.findPath)
+ * 	<li> Searches with no path are also cached
+ * </ul>
+ * NOTE: A planner always finds the same path between the same positions, and the tilemap never changes,
+ * so a cached path is never out of date, and a run gives the same results with or without the cache. <br>
+ * All functions are synchronized, so the cache can be shared by planners on any number of threads
+ */
+
+public class PathCache {
+
+	//the cached value of a search with no path
+	public static final int[] NOPATH = new int[0];
+
+	//the largest number of paths held
+	private final int capacity;
+
+	//the cached paths, from the goal to the first step as packed coordinates, in the order they were last used
+	private final LinkedHashMap<Long, int[]> paths;
+
+	//the number of searches found in the cache, and not found
+	private long hits = 0, misses = 0;
+
+	//constructor. Accepts: the largest number of paths held
+	public PathCache(final int capacity){
+		this.capacity = capacity;
+		paths = new LinkedHashMap<Long, int[]>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			//drop the path used least recently once the cache is full
+			protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest){
+				return size() > capacity;
+			}
+		};
+	}
+
+	//returns the key of a search. Accepts: the start and goal positions, in ABSOLUTE precision
+	public static long key(int startX, int startY, int goalX, int goalY){
+		return ((long) Vector2i.pack(startX, startY) << 32) | (Vector2i.pack(goalX, goalY) & 0xffffffffL);
+	}
+
+	//returns the cached path of a search, NOPATH if the search has no path, or null if the search is not cached
+	//NOTE: The path is shared, and must not be changed
+	public synchronized int[] get(long key){
+		int[] path = paths.get(key);
+		if(path == null) misses++;
+		else hits++;
+		return path;
+	}
+
+	//caches the path of a search, or NOPATH if the search has no path
+	public synchronized void put(long key, int[] path){
+		paths.put(key, path);
+	}
+
+	//returns the number of cached paths
+	public synchronized int size(){
+		return paths.size();
+	}
+
+	//returns the largest number of paths held
+	public int getCapacity(){
+		return capacity;
+	}
+
+	//returns the number of searches found in the cache
+	public synchronized long getHits(){
+		return hits;
+	}
+
+	//returns the number of searches not found in the cache
+	public synchronized long getMisses(){
+		return misses;
+	}
+
+}
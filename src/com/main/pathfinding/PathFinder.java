@@ -0,0 +1,19 @@
+package com.main.pathfinding;
+
+/**
+ * A path planner that searches the tilemap without allocating objects, writing paths as packed integer coordinates (See: Vector2i.pack). <br>
+ * Implemented by GridStar.java, JumpStar.java, ZoneStar.java, LandmarkStar.java and ResumableStar.java, and created for a run by its planner (See: Planner.createPathFinder)
+ * NOTE: A path finder holds the state of a search, so each thread searching at the same time needs its own
+ */
+
+public interface PathFinder {
+
+	//Finds a new path given a start and finish, in ABSOLUTE precision
+	//Returns the length of the path written to getPath(), or -1 if no path can be found
+	public int findPath(int startX, int startY, int goalX, int goalY);
+
+	//returns the last path found, from the goal to the first step, as packed coordinates
+	//NOTE: The array is re-used by the next search
+	public int[] getPath();
+
+}
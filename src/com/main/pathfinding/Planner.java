@@ -0,0 +1,41 @@
+package com.main.pathfinding;
+
+/**
+ * The path planners a simulation can be run with.
+ * NOTE: The planner is selected per run (See: Plane.setPlanner)
+ */
+
+public enum Planner {
+	
+	//the object based A* planner (See: Star.java)
+	STAR,
+	
+	//the allocation free A* planner, producing the same paths as STAR (See: GridStar.java)
+	GRID,
+	
+	//follows a flow field built once for each exit, instead of searching per passenger (See: FlowField.java)
+	FLOW,
+	
+	//jump point search with precomputed jumps (JPS+), with octile move costs and no corner cutting (See: JumpStar.java)
+	JUMP,
+	
+	//hierarchical A* over the zones of the cabin, with octile move costs and no corner cutting (See: ZoneStar.java)
+	ZONE,
+	
+	//A* with landmark (ALT) heuristics, with octile move costs and no corner cutting (See: LandmarkStar.java)
+	LANDMARK,
+	
+	//keeps a resumable search outwards from each exit, so replans to a exit already searched only retrace it (See: ResumableStar.java)
+	RESUME;
+	
+	//creates a path finder for the planner over a tilemap, or returns null if the planner does not search packed paths (STAR and FLOW)
+	public PathFinder createPathFinder(TileMapGenerator tileMap){
+		if(this == GRID) return new GridStar(tileMap);
+		if(this == JUMP) return new JumpStar(tileMap);
+		if(this == ZONE) return new ZoneStar(tileMap);
+		if(this == LANDMARK) return new LandmarkStar(tileMap);
+		if(this == RESUME) return new ResumableStar(tileMap);
+		return null;
+	}
+	
+}
@@ -0,0 +1,108 @@
+package com.main.pathfinding;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.main.util.Node;
+import com.main.util.Vector2i;
+
+/**
+ * PlanningService.java runs path searches on a pool of worker threads, so heavy replanning does not stall a tick. <br>
+ * Each worker thread has its own planner over the shared tilemap, as a planner holds the state of a search.
+ * A search is submitted during a tick, and its path is handed back as a future, which the passenger applies planLag ticks later (See: Passenger.replan).
+ * Until then the passenger follows their old path, and the searches run alongside the ticks in between. With a lag of 1, the next tick
+ * waits for the whole batch, so only the parallel searching is gained. <br>
+ * Paths are always applied at the same tick, however long the search took, so a run gives the same results for any number of threads. <br>
+ * NOTE: Used for every planner but FLOW, as flow fields are traced without a search
+ */
+
+public class PlanningService {
+
+	//the tilemap the searches run over, and the planner used
+	private final TileMapGenerator tileMap;
+	private final Planner planner;
+
+	//the path cache shared by the planners of each worker thread, or null if paths are not cached (See: PathCache.java)
+	private final PathCache cache;
+
+	//the worker threads
+	private final ExecutorService workers;
+
+	//the planners of each worker thread
+	private final ThreadLocal<Star> stars = new ThreadLocal<Star>();
+	private final ThreadLocal<PathFinder> pathFinders = new ThreadLocal<PathFinder>();
+
+	//constructor. Accepts: the tilemap, the planner (any but FLOW), the number of worker threads, the path cache (or null)
+	//NOTE: STAR paths are not cached, as Star.java does not search packed paths
+	public PlanningService(TileMapGenerator tileMap, Planner planner, int threads, PathCache cache){
+		if(planner == Planner.FLOW) throw new IllegalArgumentException("Flow fields are not planned in the background");
+		this.tileMap = tileMap;
+		this.planner = planner;
+		this.cache = cache;
+
+		//daemon threads, so a run that is never shut down does not keep the program open
+		workers = Executors.newFixedThreadPool(threads, new ThreadFactory(){
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, "Planner");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	//submits a search, in ABSOLUTE precision. Accepts: the start and goal positions
+	//Returns the future path, from the goal to the first step as packed coordinates, or null if no path can be found (See: Vector2i.pack)
+	public Future<int[]> submit(final int startX, final int startY, final int goalX, final int goalY){
+		return workers.submit(new Callable<int[]>(){
+			public int[] call(){
+				return findPath(startX, startY, goalX, goalY);
+			}
+		});
+	}
+
+	//finds a path on the calling thread, using the thread's own planner
+	//Returns the path, from the goal to the first step as packed coordinates, or null if no path can be found
+	public int[] findPath(int startX, int startY, int goalX, int goalY){
+		if(planner != Planner.STAR){
+			PathFinder pathFinder = pathFinders.get();
+			if(pathFinder == null){
+				pathFinder = planner.createPathFinder(tileMap);
+				if(cache != null) pathFinder = new CachedPathFinder(pathFinder, cache);
+				pathFinders.set(pathFinder);
+			}
+
+			//copy the path out of the planner, as the planner re-uses it for the next search
+			int length = pathFinder.findPath(startX, startY, goalX, goalY);
+			if(length == -1) return null;
+			int[] path = new int[length];
+			System.arraycopy(pathFinder.getPath(), 0, path, 0, length);
+			return path;
+		}
+
+		Star star = stars.get();
+		if(star == null){
+			star = new Star(tileMap);
+			stars.set(star);
+		}
+
+		//pack the nodes of the path
+		List<Node> nodes = star.findPath(new Vector2i(startX, startY), new Vector2i(goalX, goalY));
+		if(nodes == null) return null;
+		int[] path = new int[nodes.size()];
+		for(int i = 0; i < path.length; i++){
+			Vector2i tile = nodes.get(i).tile;
+			path[i] = Vector2i.pack(tile.getX(), tile.getY());
+		}
+		return path;
+	}
+
+	//stops the worker threads
+	public void shutdown(){
+		workers.shutdown();
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.main.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.main.util.IndexedHeap;
+import com.main.util.Vector2i;
+
+/**
+ * Handles reverse resumable search: a search outwards from each goal that is kept between paths, and only resumed when a path needs more of it. <br>
+ * The search from a goal is paused as soon as the start of a path is reached, so the first path to a exit costs about as much as a
+ * search, and every later path from tiles already reached only retraces the search tree. When a exit breaks and passengers
+ * turn to another exit, the search from that exit is usually already run, so the replans cost a small fraction of a search.
+ * <ul>
+ * 	<li> The search has no heuristic, so the order nodes are reached in does not depend on the starts asked for,
+ * 	     and a path is the same whichever paths were found before it
+ * 	<li> Moves cost their octile distance, and never cut the corner of a collidable tile (See: OctileGrid.java)
+ * 	<li> Produces paths of the same cost as JumpStar.java
+ * 	<li> The searches of at most MAXGOALS goals are kept. The search used least recently is dropped first
+ * </ul>
+ * NOTE: The tilemap never changes during a run, so a search never needs repairing. A broken exit only changes the goal
+ */
+
+public class ResumableStar extends OctileStar {
+
+	//the largest number of goals whose search is kept
+	private static final int MAXGOALS = 16;
+
+	/**
+	 * The search outwards from a single goal, paused between paths
+	 */
+	private class Search {
+
+		//every node that is being considered, keyed by node index
+		final IndexedHeap openList = new IndexedHeap(capacity);
+
+		//the gCost of each node, and the node after it on the way to the goal. A parent of -1 marks the goal
+		final double[] gCost = new double[capacity];
+		final int[] parent = new int[capacity];
+
+		//holds if each node has been reached, and if each node has been closed
+		final boolean[] reached = new boolean[capacity], closed = new boolean[capacity];
+
+		//constructor. Accepts: the goal node
+		Search(int goal){
+			gCost[goal] = 0;
+			parent[goal] = -1;
+			reached[goal] = true;
+			openList.add(goal, 0);
+		}
+	}
+
+	//the number of nodes
+	private int capacity;
+
+	//the search of each goal, by packed goal position, in the order they were last used
+	private LinkedHashMap<Integer, Search> searches = new LinkedHashMap<Integer, Search>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		//drop the search used least recently once too many are kept
+		protected boolean removeEldestEntry(Map.Entry<Integer, Search> eldest){
+			return size() > MAXGOALS;
+		}
+	};
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	public ResumableStar(TileMapGenerator generator){
+		super(generator);
+		capacity = grid.getCapacity();
+	}
+
+	//searches from a start node to a open goal node, writing the path with addStep
+	//Returns the length of the path, or -1 if no path can be found
+	protected int search(int start, int goal){
+
+		//get the search of the goal, starting it on the first path to the goal
+		//NOTE: The goal position fixes the tile alignment, and with it the origin and node bounds, so a search always runs over the same nodes
+		Integer key = Vector2i.pack(originX + (goal % columns) * Tile.size, originY + (goal / columns) * Tile.size);
+		Search search = searches.get(key);
+		if(search == null){
+			search = new Search(goal);
+			searches.put(key, search);
+		}
+
+		//resume the search until the start is closed
+		if(!resume(search, start)) return -1;
+		return retrace(search, start);
+	}
+
+	//resumes a search until a node is closed
+	//Returns if the node was closed, or false if the search ran out of nodes without reaching it
+	private boolean resume(Search search, int node){
+		IndexedHeap openList = search.openList;
+		while(!search.closed[node]){
+			if(openList.isEmpty()) return false;
+
+			//gets the node with the lowest gCost, removing it from the open list and closing it
+			int current = openList.poll();
+			search.closed[current] = true;
+
+			//a collidable node can be the start of a path, but no path passes through it
+			int column = current % columns;
+			int row = current / columns;
+			if(!grid.walkable(column, row)) continue;
+
+			for(int i = 0; i < 9; i++){ //checks all nodes, 4 is the middle
+				if(i == 4) continue;
+				int dx = (i % 3) - 1, dy = (i / 3) - 1;
+				int c = column + dx, r = row + dy;
+
+				//if the node exceeds bounds, or a move from it to the current node cuts a corner, continue
+				if(c < 0 || r < 0 || c > grid.getMaxColumn() || r > grid.getMaxRow()) continue;
+				if(dx != 0 && dy != 0 && (!grid.walkable(c, row) || !grid.walkable(column, r))) continue;
+
+				//if the node has already been processed, continue
+				int next = c + r * columns;
+				if(search.closed[next]) continue;
+
+				//add the node, or lower its cost if this move reaches it more cheaply
+				double g = search.gCost[current] + ((dx != 0 && dy != 0) ? OctileGrid.DIAGONAL : OctileGrid.STRAIGHT);
+				if(!search.reached[next]){
+					search.gCost[next] = g;
+					search.parent[next] = current;
+					search.reached[next] = true;
+					openList.add(next, g);
+				}else if(g < search.gCost[next]){
+					search.gCost[next] = g;
+					search.parent[next] = current;
+					openList.decreaseKey(next, g);
+				}
+			}
+		}
+		return true;
+	}
+
+	//writes the path from a closed node to the goal to the path buffer, returning its length
+	private int retrace(Search search, int start){
+
+		//count the steps, not including the start
+		int length = 0;
+		for(int node = search.parent[start]; node != -1; node = search.parent[node]){
+			length++;
+		}
+
+		//the path is written from the goal to the first step, so the first step is written last
+		int i = length;
+		for(int node = search.parent[start]; node != -1; node = search.parent[node]){
+			addStep(node, --i);
+		}
+		return length;
+	}
+
+}
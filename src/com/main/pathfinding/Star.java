@@ -1,15 +1,16 @@
 package com.main.pathfinding;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
+import com.main.util.IndexedHeap;
 import com.main.util.Node;
 import com.main.util.Vector2i;
 
 /**
  * Handles the A* pathfinding algorithm. 
+ * The open list is a indexed binary heap (See: IndexedHeap.java), ordered by fCost and then by the order nodes were added. <br>
+ * Open and closed membership is checked in O(1) by node index.
  */
 
 public class Star {
@@ -22,14 +23,18 @@ public class Star {
 	
 	//the tileMapGenerator instance (See: TileMapGenerator.java)
 	private TileMapGenerator generator;
-
-	private Comparator<Node> nodeSorter = new Comparator<Node>(){ //takes in two node opjects, and compares them
-		public int compare(Node n0, Node n1) {
-			if(n1.fCost < n0.fCost) return +1; //move n1 up in index
-			if(n1.fCost > n0.fCost) return -1; //move n1 down in index
-			return 0;							//if the nodes are the same
-		}
-	};
+	
+	//every node that is being considered, keyed by node index
+	private IndexedHeap openList;
+	
+	//the node created at each node index during the current search
+	private Node[] nodes;
+	
+	//the search in which each node index was closed. A node is closed when closed[index] == search
+	private int[] closed;
+	
+	//the current search, incremented every time findPath is called
+	private int search = 0;
 	
 	//constructor
 	//Accepts: TileMapGenerator instance
@@ -40,29 +45,48 @@ public class Star {
 		width = generator.getWidth();
 		height = generator.getHeight();
 		this.generator = generator;
+		
+		//create the search buffers
+		//NOTE: A path is a walk of whole tiles from the start, so its nodes are one row and column wider than the tilemap (See: nodeIndex)
+		int capacity = (width + 1) * (height + 1);
+		openList = new IndexedHeap(capacity);
+		nodes = new Node[capacity];
+		closed = new int[capacity];
 	}
 	
 	//Finds a new path given a start and finish
 	//Returns a ArrayList of Nodes
 	public List<Node> findPath(Vector2i start, Vector2i goal){
 		
-		List<Node> openList = new ArrayList<Node>(); //every tile that is being considered
-		List<Node> closedList = new ArrayList<Node>(); //after a tile has been processed, it will be added here
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
 		
 		//the current node
 		Node current = new Node(start, null, 0, start.getDistance(goal));
-		openList.add(current);
 		
-		//if the start is already at the goal, simply return the openList
+		//if the start is already at the goal, simply return the current node
 		if(start.equals(goal)){
-			return openList;
+			List<Node> path = new ArrayList<Node>();
+			path.add(current);
+			return path;
 		}
 		
+		//get the index of the start node. If the start is not on the tilemap, no path can be found
+		int index = nodeIndex(start.getX(), start.getY());
+		if(index == -1) return null;
+		
+		//add the start node to the open list
+		nodes[index] = current;
+		openList.add(index, current.fCost);
+		
 		//while the openList is still occupied
-		while(openList.size() > 0){
+		while(!openList.isEmpty()){
 			
-			Collections.sort(openList, nodeSorter); //sorts our openList from lowest fCost to highest
-			current = openList.get(0); //gets the starting node, the one with the lowest cost, determined by the comparator
+			//gets the node with the lowest fCost, removing it from the open list and adding it to the closed
+			index = openList.poll();
+			current = nodes[index];
+			closed[index] = search;
 			
 			//if the current tile is the goal
 			if(current.tile.equals(goal)){
@@ -73,15 +97,9 @@ public class Star {
 					//re-sets the parent
 					current = current.parent;
 				}
-				
-				//clears the open and closed list
-				openList.clear();
-				closedList.clear();
 				return path;
 			}
 			
-			openList.remove(current); //remove the current node from the open list and add it to the closed
-			closedList.add(current);
 			for(int i = 0; i < 9; i++){ //checks all nodes, 4 is the middle
 				if(i == 4) continue;
 				
@@ -101,29 +119,40 @@ public class Star {
 				
 				//if the tile is collidable, also continue
 				if(at.isCollidable()) continue;
-	
+				
+				//get the index of the node
+				int next = nodeIndex(x + xi, y + yi);
+				
+				//if the node has already been processed, or is already being considered, continue
+				//NOTE: A node keeps the parent it was first reached from. This keeps the produced paths identical to earlier versions
+				if(closed[next] == search || openList.contains(next)) continue;
 				
 				Vector2i a = new Vector2i(x + xi, y + yi); //tile in vector form
 				double gCost = current.gCost + (current.tile.getDistance(a) == 1 ? 1 : 0.95); //gets the distance from the middle
 				double hCost = a.getDistance(goal); //determines the h cost
 				
-				//creates a new node using this data
+				//creates a new node using this data and adds it to the open list
 				Node node = new Node(a, current, gCost, hCost);
-				
-				//if the node is not worth adding to the openlist due to it being both in the closed list and having a high gcost
-				if(vecInList(closedList, a) && gCost >= node.gCost) continue;
-				
-				//if the node is not in the closed list and has a lower gcost, add it to the openlist
-				if(!vecInList(openList, a) || gCost < node.gCost) openList.add(node);
+				nodes[next] = node;
+				openList.add(next, node.fCost);
 			}
 		}
 		
-		//if no path is found, clear the closed list and return null
-		closedList.clear();
+		//if no path is found, return null
 		return null;
 		
 	}
 	
+	//returns the index of a node at a specific location, or -1 if the location exceeds bounds
+	//NOTE: Every node in a search is a whole number of tiles from the start, so no two nodes share a index.
+	//A node on the maximum x or y bound is given its own column and row, hence the width + 1
+	private int nodeIndex(int x, int y){
+		if(x < generator.getMinX() || x > generator.getMaxX() || y < generator.getMinY() || y > generator.getMaxY()){
+			return -1;
+		}
+		return (x - generator.getMinX()) / Tile.size + ((y - generator.getMinY()) / Tile.size) * (width + 1);
+	}
+	
 	//returns a tile at a specific location
 	private Tile getTile(int x, int y){
 		
@@ -142,18 +171,4 @@ public class Star {
 
 	}
 	
-	//determines if a vector is in a list
-	private boolean vecInList(List<Node> list, Vector2i vector){
-		
-		//loop the list
-		for(Node n : list){
-			
-			//return true if the vector is contained
-			if(n.tile.equals(vector)) return true;
-		}
-		//return false if not
-		return false;
-	}
-
-	
 }
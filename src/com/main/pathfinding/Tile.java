@@ -1,8 +1,9 @@
 package com.main.pathfinding;
 
-import java.util.Random;
 import com.main.graphics.Graphic;
 import com.main.graphics.Screen;
+import com.main.util.RandomStream;
+import com.main.util.Vector2i;
 
 
 public class Tile {
@@ -21,7 +22,8 @@ public class Tile {
 	}
 	
 	private void generateGraphic(){
-		Random rand = new Random();
+		//the colour is seeded by the position, so a tile is always the same colour
+		RandomStream rand = new RandomStream(Vector2i.pack(x, y));
 		int col = colours[rand.nextInt(5)];
 		
 		int[] pixels = new int[size*size];
@@ -1,6 +1,10 @@
 package com.main.pathfinding;
 
-import com.main.entity.Plane;
+import java.util.Collections;
+import java.util.List;
+
+import com.main.entity.LayoutCache;
+import com.main.util.CollisionMap;
 import com.main.util.Vector2i;
 
 /**
@@ -21,16 +25,46 @@ public class TileMapGenerator {
 	private int ymin = 160, ymax = 348;
 	
 	//create a new Tile array to hold the created tileMap
+	//NOTE: Tiles are only created when first requested (See: getMap)
 	private Tile[] tileMap;
 	
+	//holds if each tile is collidable, indexed the same as the tileMap
+	private boolean[] collidable;
+	
+	//the zone graphs of the tilemap, used for hierarchical pathfinding, one for each node bound (See: getZoneGraph)
+	//NOTE: The graphs are only built when first requested
+	private ZoneGraph[] zoneGraphs = new ZoneGraph[4];
+	
+	//the absolute positions of the landmarks, and the distance tables from them, one for each node bound (See: getLandmarks)
+	//NOTE: The tables are only built when first requested
+	private List<Vector2i> landmarkPositions = Collections.emptyList();
+	private Landmarks[] landmarks = new Landmarks[4];
+	
+	//the jump distances of the tilemap, used for jump point search, one for each node bound (See: getJumpTable)
+	//NOTE: The tables are only built when first requested
+	private JumpTable[] jumpTables = new JumpTable[4];
+	
 	//the width and height of the tilemap.
 	//NOTE: The width and height are in TILE precision
 	private int width, height;
 	
+	//the collidable pixels of the plane the tilemap covers
+	private CollisionMap collidablePixels;
+	
+	//constructor. Accepts: the collidable pixels of the plane (See: Plane.getCollidablePixels)
+	public TileMapGenerator(CollisionMap collidablePixels){
+		this.collidablePixels = collidablePixels;
+	}
 	
 	//generates a new tileMap used for pathfining
 	//accepts: the passenger coordinate position in integer format.
 	public void generateMap(int passengerX, int passengerY){
+		generateMap(passengerX, passengerY, null);
+	}
+	
+	//generates a new tileMap used for pathfining, re-using a cached tilemap when one exists
+	//accepts: the passenger coordinate position in integer format, the layout cache (or null)
+	public void generateMap(int passengerX, int passengerY, LayoutCache cache){
 		
 		//create a new Vector to store the passenger's location
 		location = new Vector2i(passengerX, passengerY);		
@@ -42,9 +76,15 @@ public class TileMapGenerator {
 		//NOTE: The width and height is in TILE precision, therefore is 1/4 actual scale.
 		width = (xmax - xmin)/tileSize;
 		height = (ymax - ymin)/tileSize;
-								
-		//create a new tile map array
-		tileMap = new Tile[width * height];
+		
+		//if the tilemap was cached, no tile must be checked
+		if(cache != null){
+			collidable = cache.loadGrid(xmin, ymin, width, height);
+			if(collidable != null) return;
+		}
+		
+		//create a new collidable array
+		collidable = new boolean[width * height];
 		
 		//loop from the minimum exterminate to the maximum, iterating by the tileSize.
 		for(int y = ymin; y < ymax; y+=tileSize){
@@ -58,43 +98,24 @@ public class TileMapGenerator {
 				
 				//determine the x tile position
 				int xa = (x - xmin)/tileSize;
-			
-				//create a new tile instance using absolute position for the tile
-				//NOTE: This is in ABSOLUTE precision
-				Tile tile = new Tile(x, y);
 				
 				//check if the tile is collidable
-				tile.collidable = checkCollidable(x, y);
-				
-				//add the tile to the tilemap
-				tileMap[xa + ya * width] = tile;
+				//NOTE: This is in ABSOLUTE precision
+				collidable[xa + ya * width] = checkCollidable(x, y);
 			}
 		}
+		
+		//cache the tilemap for later runs
+		if(cache != null) cache.saveGrid(xmin, ymin, width, height, collidable);
 	}
 	
 	//determines if a given tile is collidable.
 	//accepts a x and y position of the Tile in ABSOLUTE precision
 	public boolean checkCollidable(int x, int y){
 		
-		//loop through the 16 pixels required to check a 4*4 tile. 
-		for(int i = 0; i < 16; i++){
-			
-			//determine the x and y position on the tile
-			//NOTE: The position is in ABSOLUTE precision and congruent with the screen coordinate system
-			int xi = ((i % 4)) + x;
-			int yi = ((i / 4)) + y;
-			
-			//create a new vector for the given pixel
-			Vector2i pixel = new Vector2i(xi, yi);
-			
-			//if the pixel is in the collidable directory of the Plane, the tile is therefore marked as collidable
-			if(Plane.collidablePixels.contains(pixel)){
-				return true;
-			}
-		}
-		
-		//if the no pixel's where found to be collidable
-		return false;
+		//if any of the pixels covered by the tile are in the collidable map of the Plane, the tile is therefore marked as collidable
+		//NOTE: The position is in ABSOLUTE precision and congruent with the screen coordinate system
+		return collidablePixels.isCollidable(x, y, tileSize, tileSize);
 	}
 	
 	//calculate the extremities of the tilemap
@@ -137,10 +158,74 @@ public class TileMapGenerator {
 	}
 	
 	//return the generated tilemap
-	public Tile[] getMap(){
+	//NOTE: The tiles are created on the first call. Tilemaps are shared between planes, so only one thread creates them (See: CabinLayout.java)
+	public synchronized Tile[] getMap(){
+		
+		//if the tiles have already been created, return them
+		if(tileMap != null) return tileMap;
+		
+		//create a new tile map array
+		tileMap = new Tile[width * height];
+		
+		//loop through each tile
+		for(int ya = 0; ya < height; ya++){
+			for(int xa = 0; xa < width; xa++){
+				
+				//create a new tile instance using absolute position for the tile
+				Tile tile = new Tile(xmin + xa * tileSize, ymin + ya * tileSize);
+				tile.collidable = collidable[xa + ya * width];
+				
+				//add the tile to the tilemap
+				tileMap[xa + ya * width] = tile;
+			}
+		}
 		return tileMap;
 	}
 	
+	//return the zone graph of the tilemap for the largest node column and row of a search (See: ZoneGraph.java)
+	//NOTE: A search starting off the tilemap alignment loses the last node column and row, so there are at most 4 graphs. <br>
+	//The graphs are built on the first call, and shared by every planner over the tilemap, so only one thread builds them. <br>
+	//The graphs only cover the nodes that can reach a landmark, as the landmarks are the exits of the plane (See: setLandmarks)
+	public synchronized ZoneGraph getZoneGraph(int maxColumn, int maxRow){
+		int bound = getBound(maxColumn, maxRow);
+		if(zoneGraphs[bound] == null) zoneGraphs[bound] = new ZoneGraph(this, landmarkPositions, maxColumn, maxRow);
+		return zoneGraphs[bound];
+	}
+	
+	//sets the absolute positions of the landmarks used for ALT heuristics and covered by the zone graphs, such as the exits of the plane (See: Landmarks.java)
+	public synchronized void setLandmarks(List<Vector2i> positions){
+		landmarkPositions = positions;
+		landmarks = new Landmarks[4];
+		zoneGraphs = new ZoneGraph[4];
+	}
+	
+	//return the distance tables from the landmarks for the largest node column and row of a search (See: getZoneGraph)
+	//NOTE: The tables are built on the first call, and shared by every planner over the tilemap
+	public synchronized Landmarks getLandmarks(int maxColumn, int maxRow){
+		int bound = getBound(maxColumn, maxRow);
+		if(landmarks[bound] == null) landmarks[bound] = new Landmarks(this, landmarkPositions, maxColumn, maxRow);
+		return landmarks[bound];
+	}
+	
+	//return the jump distances of the tilemap for the largest node column and row of a search (See: JumpTable.java)
+	//NOTE: The tables are built on the first call, and shared by every planner over the tilemap (See: getZoneGraph)
+	public synchronized JumpTable getJumpTable(int maxColumn, int maxRow){
+		int bound = getBound(maxColumn, maxRow);
+		if(jumpTables[bound] == null) jumpTables[bound] = new JumpTable(this, maxColumn, maxRow);
+		return jumpTables[bound];
+	}
+	
+	//returns the index of the largest node column and row of a search, from 0 to 3
+	public int getBound(int maxColumn, int maxRow){
+		if(maxColumn < width - 1 || maxColumn > width || maxRow < height - 1 || maxRow > height) throw new IllegalArgumentException("Node bounds do not fit the tilemap");
+		return (width - maxColumn) + (height - maxRow) * 2;
+	}
+	
+	//return if each tile is collidable, indexed the same as the tilemap
+	public boolean[] getCollidable(){
+		return collidable;
+	}
+	
 	//get the tilemap width
 	public int getWidth(){
 		return width;
@@ -0,0 +1,265 @@
+package com.main.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.main.util.Vector2i;
+
+/**
+ * A abstract graph of the cabin, built once over a tilemap, for hierarchical A* (See: ZoneStar.java). <br>
+ * The tile nodes are split into square zones. Where open tiles cross the border between two zones, a entrance is placed,
+ * with a node on each side of the border. The nodes of each zone are joined by edges costing the shortest path between them within the zone.
+ * <ul>
+ * 	<li> A run of open border tiles shorter than MAXRUN has one entrance at its middle, any other run has one at each end
+ * 	<li> Only nodes that can reach one of the given positions, the exits of the plane, are covered. The open tiles outside the fuselage
+ * 	     cannot reach the cabin, so they get no entrances, and zones holding only them have no nodes
+ * 	<li> Nodes and edges are held in arrays (edges by node, See: getEdgeStart) so searches allocate nothing
+ * </ul>
+ * NOTE: The graph is never changed once built, so it is shared by every planner over the tilemap (See: TileMapGenerator.getZoneGraph). <br>
+ * The graph is held in node columns and rows, so it fits any search origin with the same largest node column and row
+ */
+
+public class ZoneGraph {
+
+	//the width and height of a zone
+	//NOTE: In TILE precision
+	public static final int ZONESIZE = 12;
+
+	//the length of a border run from which it has two entrances
+	private static final int MAXRUN = 3;
+
+	//the number of node columns, and the largest node column and row
+	private int columns, maxColumn, maxRow;
+
+	//the number of zone columns and rows
+	private int zoneColumns, zoneRows;
+
+	//the tile node of each graph node
+	private int[] nodes;
+
+	//the graph nodes of each zone, as zoneNodes[zoneStart[zone]] to zoneNodes[zoneStart[zone + 1] - 1]
+	private int[] zoneStart, zoneNodes;
+
+	//the edges of each graph node, as edgeTarget[edgeStart[node]] to edgeTarget[edgeStart[node + 1] - 1]
+	private int[] edgeStart, edgeTarget;
+	private double[] edgeCost;
+
+	//holds if each tile node is covered by the graph, as it can reach one of the given positions
+	private boolean[] covered;
+
+	//constructor. Builds the graph
+	//Accepts: TileMapGenerator instance, the absolute positions the graph covers the nodes of, the largest node column and row of the searches using the graph
+	//NOTE: With no positions, every node is covered
+	public ZoneGraph(TileMapGenerator generator, List<Vector2i> positions, int maxColumn, int maxRow){
+		this.maxColumn = maxColumn;
+		this.maxRow = maxRow;
+		OctileGrid grid = new OctileGrid(generator);
+		grid.setBounds(maxColumn, maxRow);
+		ZoneSearch search = new ZoneSearch(grid);
+		columns = grid.getColumns();
+		zoneColumns = maxColumn / ZONESIZE + 1;
+		zoneRows = maxRow / ZONESIZE + 1;
+
+		//find the covered nodes
+		cover(generator, search, positions, grid.getCapacity());
+
+		//the graph node of each tile node, while building
+		int[] graphNode = new int[columns * (maxRow + 1)];
+		Arrays.fill(graphNode, -1);
+		List<Integer> nodeList = new ArrayList<Integer>();
+		List<int[]> crossings = new ArrayList<int[]>();
+
+		//find the entrances across each vertical border, then each horizontal border
+		for(int zy = 0; zy < zoneRows; zy++){
+			for(int zx = 0; zx < zoneColumns; zx++){
+				if(zx + 1 < zoneColumns) findEntrances(grid, (zx + 1) * ZONESIZE - 1, zy * ZONESIZE, 1, 0, graphNode, nodeList, crossings);
+				if(zy + 1 < zoneRows) findEntrances(grid, zx * ZONESIZE, (zy + 1) * ZONESIZE - 1, 0, 1, graphNode, nodeList, crossings);
+			}
+		}
+
+		//hold the tile node of each graph node
+		nodes = new int[nodeList.size()];
+		for(int i = 0; i < nodes.length; i++){
+			nodes[i] = nodeList.get(i);
+		}
+
+		//group the graph nodes by zone
+		zoneStart = new int[zoneColumns * zoneRows + 1];
+		for(int i = 0; i < nodes.length; i++){
+			zoneStart[getZone(nodes[i]) + 1]++;
+		}
+		for(int z = 0; z < zoneColumns * zoneRows; z++){
+			zoneStart[z + 1] += zoneStart[z];
+		}
+		zoneNodes = new int[nodes.length];
+		int[] filled = Arrays.copyOf(zoneStart, zoneStart.length - 1);
+		for(int i = 0; i < nodes.length; i++){
+			zoneNodes[filled[getZone(nodes[i])]++] = i;
+		}
+
+		//the edges of each graph node: one across each of its entrances, and one to each node it can reach within its zone
+		List<List<double[]>> edges = new ArrayList<List<double[]>>();
+		for(int i = 0; i < nodes.length; i++){
+			edges.add(new ArrayList<double[]>());
+		}
+		for(int[] crossing : crossings){
+			edges.get(crossing[0]).add(new double[]{crossing[1], OctileGrid.STRAIGHT});
+			edges.get(crossing[1]).add(new double[]{crossing[0], OctileGrid.STRAIGHT});
+		}
+		for(int i = 0; i < nodes.length; i++){
+			int zone = getZone(nodes[i]);
+			search.search(nodes[i], -1, getZoneColumn(zone), getZoneRow(zone), getZoneMaxColumn(zone), getZoneMaxRow(zone));
+			for(int j = zoneStart[zone]; j < zoneStart[zone + 1]; j++){
+				int other = zoneNodes[j];
+				double cost = search.getCost(nodes[other]);
+				if(other != i && cost != Double.POSITIVE_INFINITY) edges.get(i).add(new double[]{other, cost});
+			}
+		}
+
+		//pack the edges into arrays
+		edgeStart = new int[nodes.length + 1];
+		for(int i = 0; i < nodes.length; i++){
+			edgeStart[i + 1] = edgeStart[i] + edges.get(i).size();
+		}
+		edgeTarget = new int[edgeStart[nodes.length]];
+		edgeCost = new double[edgeStart[nodes.length]];
+		for(int i = 0; i < nodes.length; i++){
+			for(int j = 0; j < edges.get(i).size(); j++){
+				edgeTarget[edgeStart[i] + j] = (int) edges.get(i).get(j)[0];
+				edgeCost[edgeStart[i] + j] = edges.get(i).get(j)[1];
+			}
+		}
+	}
+
+	//marks the nodes reached by a search outwards from the node of each position as covered
+	//NOTE: Moves are reversible, so the nodes reached from a position are the nodes that can reach it. Positions are fitted as in Landmarks.java
+	private void cover(TileMapGenerator generator, ZoneSearch search, List<Vector2i> positions, int capacity){
+		covered = new boolean[capacity];
+		if(positions.isEmpty()) Arrays.fill(covered, true);
+		for(Vector2i position : positions){
+			if(position.getX() < generator.getMinX() || position.getY() < generator.getMinY()) continue;
+			int column = (position.getX() - generator.getMinX()) / Tile.size;
+			int row = (position.getY() - generator.getMinY()) / Tile.size;
+			if(column > maxColumn || row > maxRow || covered[column + row * columns]) continue;
+			search.search(column + row * columns, -1, 0, 0, maxColumn, maxRow);
+			for(int node = 0; node < capacity; node++){
+				if(search.getCost(node) != Double.POSITIVE_INFINITY) covered[node] = true;
+			}
+		}
+	}
+
+	//finds the entrances along one zone border, adding their nodes and crossings
+	//Accepts: the node grid, the first node before the border, the direction across the border (1, 0 or 0, 1),
+	//the graph node of each tile node, the tile node of each graph node, the pairs of graph nodes joined across the border
+	private void findEntrances(OctileGrid grid, int column, int row, int dx, int dy, int[] graphNode, List<Integer> nodeList, List<int[]> crossings){
+
+		//the border runs along the other axis
+		int ax = dy, ay = dx;
+		int run = 0;
+		for(int i = 0; i <= ZONESIZE; i++){
+			int c = column + ax * i, r = row + ay * i;
+
+			//a pair of open, covered nodes facing each other across the border extends the run
+			boolean open = i < ZONESIZE && c <= maxColumn && r <= maxRow && grid.walkable(c, r) && grid.walkable(c + dx, r + dy) && covered[c + r * columns];
+			if(open){
+				run++;
+				continue;
+			}
+			if(run == 0) continue;
+
+			//place the entrances of the run that just ended
+			int first = i - run;
+			if(run < MAXRUN){
+				addCrossing(column + ax * (first + run / 2), row + ay * (first + run / 2), dx, dy, graphNode, nodeList, crossings);
+			}else{
+				addCrossing(column + ax * first, row + ay * first, dx, dy, graphNode, nodeList, crossings);
+				addCrossing(column + ax * (i - 1), row + ay * (i - 1), dx, dy, graphNode, nodeList, crossings);
+			}
+			run = 0;
+		}
+	}
+
+	//adds a entrance from a node to the node across the border, adding either node to the graph if it is not already in it
+	private void addCrossing(int column, int row, int dx, int dy, int[] graphNode, List<Integer> nodeList, List<int[]> crossings){
+		int a = addNode(column + row * columns, graphNode, nodeList);
+		int b = addNode(column + dx + (row + dy) * columns, graphNode, nodeList);
+		crossings.add(new int[]{a, b});
+	}
+
+	//returns the graph node of a tile node, adding it to the graph if required
+	private int addNode(int node, int[] graphNode, List<Integer> nodeList){
+		if(graphNode[node] == -1){
+			graphNode[node] = nodeList.size();
+			nodeList.add(node);
+		}
+		return graphNode[node];
+	}
+
+	//returns the zone of a tile node
+	public int getZone(int node){
+		return (node % columns) / ZONESIZE + ((node / columns) / ZONESIZE) * zoneColumns;
+	}
+
+	//returns the zone a number of zone columns and rows from a zone, or -1 if there is no such zone
+	public int getNeighbour(int zone, int dx, int dy){
+		int zx = zone % zoneColumns + dx, zy = zone / zoneColumns + dy;
+		if(zx < 0 || zy < 0 || zx >= zoneColumns || zy >= zoneRows) return -1;
+		return zx + zy * zoneColumns;
+	}
+
+	//returns if two zones are the same zone, or touch along a side or at a corner
+	public boolean isNeighbour(int zone, int other){
+		return Math.abs(zone % zoneColumns - other % zoneColumns) <= 1 && Math.abs(zone / zoneColumns - other / zoneColumns) <= 1;
+	}
+
+	//returns the first and last node column and row of a zone
+	public int getZoneColumn(int zone){
+		return (zone % zoneColumns) * ZONESIZE;
+	}
+
+	public int getZoneRow(int zone){
+		return (zone / zoneColumns) * ZONESIZE;
+	}
+
+	public int getZoneMaxColumn(int zone){
+		return Math.min(getZoneColumn(zone) + ZONESIZE - 1, maxColumn);
+	}
+
+	public int getZoneMaxRow(int zone){
+		return Math.min(getZoneRow(zone) + ZONESIZE - 1, maxRow);
+	}
+
+	//returns the number of graph nodes
+	public int size(){
+		return nodes.length;
+	}
+
+	//returns the tile node of a graph node
+	public int getNode(int id){
+		return nodes[id];
+	}
+
+	//returns the graph nodes of each zone (See: zoneStart)
+	public int[] getZoneStart(){
+		return zoneStart;
+	}
+
+	public int[] getZoneNodes(){
+		return zoneNodes;
+	}
+
+	//returns the edges of each graph node (See: edgeStart)
+	public int[] getEdgeStart(){
+		return edgeStart;
+	}
+
+	public int[] getEdgeTarget(){
+		return edgeTarget;
+	}
+
+	public double[] getEdgeCost(){
+		return edgeCost;
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.main.pathfinding;
+
+import com.main.util.IndexedHeap;
+
+/**
+ * A A* search over the tile nodes of a tilemap, bounded to a rectangle of nodes such as a single zone (See: ZoneGraph.java). <br>
+ * Used both to build the zone graph, and by ZoneStar.java to connect a start and goal to the graph and to refine its paths.
+ * Without a goal, the search visits every node it can reach within the bounds, as a Dijkstra search. <br>
+ * NOTE: Makes the moves of the octile planners (See: OctileGrid.java)
+ */
+
+class ZoneSearch {
+
+	//the node grid and its moves
+	private OctileGrid grid;
+
+	//the number of node columns
+	private int columns;
+
+	//every node that is being considered, keyed by node index
+	private IndexedHeap openList;
+
+	//the gCost and parent of each node. A parent of -1 marks the start node
+	private double[] gCost;
+	private int[] parent;
+
+	//the search in which each node was reached, and in which it was closed
+	private int[] reached, closed;
+
+	//the current search
+	private int search = 0;
+
+	//constructor
+	//Accepts: the node grid, whose bounds are set by the caller before each search (See: OctileGrid.setBounds)
+	ZoneSearch(OctileGrid grid){
+
+		//set the required variables
+		this.grid = grid;
+		columns = grid.getColumns();
+
+		//create the search buffers
+		int capacity = grid.getCapacity();
+		openList = new IndexedHeap(capacity);
+		gCost = new double[capacity];
+		parent = new int[capacity];
+		reached = new int[capacity];
+		closed = new int[capacity];
+	}
+
+	//searches from a node to a goal node, or to every node if the goal is -1, without leaving a rectangle of nodes
+	//Accepts: the start and goal nodes, the smallest and largest column and row of the rectangle
+	//Returns if the goal was reached. Without a goal, returns true
+	boolean search(int start, int goal, int fromColumn, int fromRow, int toColumn, int toRow){
+
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
+
+		//get the goal column and row
+		int goalColumn = goal % columns, goalRow = goal / columns;
+
+		//add the start node to the open list
+		gCost[start] = 0;
+		parent[start] = -1;
+		reached[start] = search;
+		openList.add(start, goal == -1 ? 0 : OctileGrid.heuristic(start % columns, start / columns, goalColumn, goalRow));
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//gets the node with the lowest fCost, removing it from the open list and closing it
+			int current = openList.poll();
+			closed[current] = search;
+
+			//if the current node is the goal, the search is done
+			if(current == goal) return true;
+
+			//get the column and row of the current node
+			int column = current % columns;
+			int row = current / columns;
+
+			for(int i = 0; i < 9; i++){ //checks all nodes, 4 is the middle
+				if(i == 4) continue;
+				int dx = (i % 3) - 1, dy = (i / 3) - 1;
+				int c = column + dx, r = row + dy;
+
+				//if the node is outside the rectangle, or the move is not possible, continue
+				if(c < fromColumn || r < fromRow || c > toColumn || r > toRow) continue;
+				if(!grid.canMove(column, row, dx, dy)) continue;
+
+				//if the node has already been processed, continue
+				int next = c + r * columns;
+				if(closed[next] == search) continue;
+
+				//add the node, or lower its cost if this move reaches it more cheaply
+				double g = gCost[current] + ((dx != 0 && dy != 0) ? OctileGrid.DIAGONAL : OctileGrid.STRAIGHT);
+				double h = goal == -1 ? 0 : OctileGrid.heuristic(c, r, goalColumn, goalRow);
+				if(reached[next] != search){
+					gCost[next] = g;
+					parent[next] = current;
+					reached[next] = search;
+					openList.add(next, g + h);
+				}else if(g < gCost[next]){
+					gCost[next] = g;
+					parent[next] = current;
+					openList.decreaseKey(next, g + h);
+				}
+			}
+		}
+
+		//without a goal, every reachable node has been visited
+		return goal == -1;
+	}
+
+	//returns the cost of the last search to a node, or infinity if the node was not reached
+	//NOTE: Only final for closed nodes, or for every reached node once a search without a goal is done
+	double getCost(int node){
+		return reached[node] == search ? gCost[node] : Double.POSITIVE_INFINITY;
+	}
+
+	//returns the node a node was reached from in the last search, or -1 for the start node
+	int getParent(int node){
+		return parent[node];
+	}
+
+}
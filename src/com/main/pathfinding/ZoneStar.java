@@ -0,0 +1,307 @@
+package com.main.pathfinding;
+
+import java.util.Arrays;
+
+import com.main.util.IndexedHeap;
+
+/**
+ * Handles hierarchical A* (HPA*) over the zones of the cabin (See: ZoneGraph.java). <br>
+ * A search first connects the start and goal to the entrances of their own zones, then runs A* over the zone graph,
+ * which only holds a few nodes per zone. The path is then refined into tiles one zone at a time, each with a search bounded to its zone,
+ * so no search covers the whole tilemap.
+ * <ul>
+ * 	<li> Moves cost their octile distance, and never cut the corner of a collidable tile (See: OctileGrid.java)
+ * 	<li> Paths are routed through the entrances of the graph, so the refined path is smoothed, replacing stretches with straight octile lines (See: smooth)
+ * 	<li> Paths can still be a little longer than the optimal path
+ * </ul>
+ * NOTE: The graphs are shared, and only the search state is held per planner
+ */
+
+public class ZoneStar extends OctileStar {
+
+	//the zone graph of the current search, and the graphs already fetched from the tilemap, by node bound (See: TileMapGenerator.getZoneGraph)
+	private ZoneGraph graph;
+	private ZoneGraph[] graphs = new ZoneGraph[4];
+
+	//the bounded tile search, used to connect the start and goal and to refine the path
+	private ZoneSearch zoneSearch;
+
+	//the graph nodes being considered. The start and goal are added as the last two graph nodes
+	private IndexedHeap openList;
+
+	//the gCost and parent of each graph node. A parent of -1 marks the start
+	private double[] gCost;
+	private int[] parent;
+
+	//the search in which each graph node was reached, and in which it was closed
+	private int[] reached, closed;
+
+	//the cost from the start, and to the goal, of each graph node in the zones around them (See: connect). Infinite if it cannot be reached
+	private double[] startCost, goalCost;
+
+	//the current search
+	private int search = 0;
+
+	//the furthest number of steps ahead a straight line is looked for when smoothing a path
+	private static final int WINDOW = ZoneGraph.ZONESIZE * 2;
+
+	//the nodes of the refined path, from the goal to the start, and the cost from the goal to each of them
+	//NOTE: Kept between searches, so smoothing allocates nothing once they fit the longest path
+	private int[] steps = new int[64];
+	private double[] stepCost = new double[64];
+
+	//constructor
+	//Accepts: TileMapGenerator instance
+	public ZoneStar(TileMapGenerator generator){
+		super(generator);
+		zoneSearch = new ZoneSearch(grid);
+	}
+
+	//searches from a start node to a open goal node, writing the path with addStep
+	//Returns the length of the path, or -1 if no path can be found
+	protected int search(int start, int goal){
+
+		//get the zone graph for the bounds of the search
+		useGraph(grid.getMaxColumn(), grid.getMaxRow());
+
+		//search the graph, refine each edge of the graph path into tiles, then smooth the refined path
+		int end = searchGraph(start, goal);
+		if(end == -1) return -1;
+		int length = 0;
+		for(int id = end; parent[id] != -1; id = parent[id]){
+			int to = tileNode(id, start, goal), from = tileNode(parent[id], start, goal);
+
+			//the edges joining the start and goal to the graph are refined over the zones they were found in (See: connect)
+			if(parent[id] == graph.size()){
+				searchAround(from, to, start);
+				length = refine(from, to, length);
+			}else if(id == end){
+				searchAround(from, to, goal);
+				length = refine(from, to, length);
+			}else{
+				length = refineEdge(from, to, length);
+			}
+		}
+		length = addRefined(start, length);
+		return smooth(length - 1);
+	}
+
+	//sets the zone graph for the largest node column and row of a search, growing the search buffers to fit it
+	private void useGraph(int maxColumn, int maxRow){
+		int bound = generator.getBound(maxColumn, maxRow);
+		if(graphs[bound] == null) graphs[bound] = generator.getZoneGraph(maxColumn, maxRow);
+		graph = graphs[bound];
+
+		//the start and goal are added as the last two graph nodes
+		int capacity = graph.size() + 2;
+		if(openList != null && openList.capacity() >= capacity) return;
+		openList = new IndexedHeap(capacity);
+		gCost = new double[capacity];
+		parent = new int[capacity];
+		reached = new int[capacity];
+		closed = new int[capacity];
+		startCost = new double[capacity];
+		goalCost = new double[capacity];
+	}
+
+	//runs A* over the zone graph, with the start and goal added as the last two graph nodes
+	//Returns the goal graph node, or -1 if the goal cannot be reached
+	private int searchGraph(int start, int goal){
+
+		//start a new search, re-setting the open list
+		search++;
+		openList.clear();
+		int startId = graph.size(), goalId = graph.size() + 1;
+		int goalColumn = goal % columns, goalRow = goal / columns;
+
+		//find the cost of the graph nodes around the start from the start, and if the goal can be reached without leaving the zones around it
+		int startZone = graph.getZone(start), goalZone = graph.getZone(goal);
+		connect(start, startZone, startCost);
+		double direct = zoneSearch.getCost(goal);
+
+		//find the cost of the graph nodes around the goal to the goal
+		connect(goal, goalZone, goalCost);
+
+		//add the start
+		gCost[startId] = 0;
+		parent[startId] = -1;
+		reached[startId] = search;
+		openList.add(startId, OctileGrid.heuristic(start % columns, start / columns, goalColumn, goalRow));
+
+		//the edges of the graph
+		int[] zoneStart = graph.getZoneStart(), zoneNodes = graph.getZoneNodes();
+		int[] edgeStart = graph.getEdgeStart(), edgeTarget = graph.getEdgeTarget();
+		double[] edgeCost = graph.getEdgeCost();
+
+		//while the openList is still occupied
+		while(!openList.isEmpty()){
+
+			//gets the graph node with the lowest fCost, removing it from the open list and closing it
+			int current = openList.poll();
+			closed[current] = search;
+
+			//if the current node is the goal, the search is done
+			if(current == goalId) return goalId;
+
+			//the start is joined to the graph nodes of the zones around it, and to the goal if it can be reached within them
+			if(current == startId){
+				for(int i = 0; i < 9; i++){ //checks all zones around the start zone, 4 is the start zone
+					int zone = graph.getNeighbour(startZone, (i % 3) - 1, (i / 3) - 1);
+					if(zone == -1) continue;
+					for(int j = zoneStart[zone]; j < zoneStart[zone + 1]; j++){
+						relax(current, zoneNodes[j], startCost[zoneNodes[j]], goalColumn, goalRow);
+					}
+				}
+				relax(current, goalId, direct, goalColumn, goalRow);
+				continue;
+			}
+
+			//follow the edges of the graph node, and join it to the goal if it is in a zone around the goal
+			for(int i = edgeStart[current]; i < edgeStart[current + 1]; i++){
+				relax(current, edgeTarget[i], edgeCost[i], goalColumn, goalRow);
+			}
+			if(graph.isNeighbour(graph.getZone(graph.getNode(current)), goalZone)) relax(current, goalId, goalCost[current], goalColumn, goalRow);
+		}
+
+		//if no path is found
+		return -1;
+	}
+
+	//adds a graph node reached across a edge, or lowers its cost if the edge reaches it more cheaply
+	private void relax(int current, int next, double cost, int goalColumn, int goalRow){
+		if(cost == Double.POSITIVE_INFINITY || closed[next] == search) return;
+		double g = gCost[current] + cost;
+		int node = next == graph.size() + 1 ? goalColumn + goalRow * columns : graph.getNode(next);
+		double f = g + OctileGrid.heuristic(node % columns, node / columns, goalColumn, goalRow);
+		if(reached[next] != search){
+			gCost[next] = g;
+			parent[next] = current;
+			reached[next] = search;
+			openList.add(next, f);
+		}else if(g < gCost[next]){
+			gCost[next] = g;
+			parent[next] = current;
+			openList.decreaseKey(next, f);
+		}
+	}
+
+	//searches the zones around the start or goal from it (See: searchAround), writing the cost to each graph node of the zones around its zone
+	//NOTE: A start on a collidable tile beside a border can have open neighbours only across it, in a part of the next zone with no entrances
+	//near the border. So the start is joined to the graph nodes of the zones of its neighbours, not only those of its own zone
+	private void connect(int node, int zone, double[] costs){
+		searchAround(node, -1, node);
+		int[] zoneStart = graph.getZoneStart(), zoneNodes = graph.getZoneNodes();
+		for(int i = 0; i < 9; i++){ //checks all zones around the zone, 4 is the zone
+			int around = graph.getNeighbour(zone, (i % 3) - 1, (i / 3) - 1);
+			if(around == -1) continue;
+			for(int j = zoneStart[around]; j < zoneStart[around + 1]; j++){
+				costs[zoneNodes[j]] = zoneSearch.getCost(graph.getNode(zoneNodes[j]));
+			}
+		}
+	}
+
+	//returns the tile node of a graph node, including the start and goal
+	private int tileNode(int id, int start, int goal){
+		if(id == graph.size()) return start;
+		if(id == graph.size() + 1) return goal;
+		return graph.getNode(id);
+	}
+
+	//refines a edge of the graph into tiles, adding them to the refined path after the given length, and returns the new length
+	//NOTE: A edge across a entrance is a single step. Any other edge lies within one zone
+	private int refineEdge(int from, int to, int length){
+
+		//step across the entrance
+		if(graph.getZone(from) != graph.getZone(to)) return addRefined(to, length);
+
+		//search the zone for the tiles between the two nodes
+		int zone = graph.getZone(to);
+		zoneSearch.search(from, to, graph.getZoneColumn(zone), graph.getZoneRow(zone), graph.getZoneMaxColumn(zone), graph.getZoneMaxRow(zone));
+		return refine(from, to, length);
+	}
+
+	//searches from a node, to a goal node or to every node if the goal is -1, within the zones of a node and of its neighbours
+	//NOTE: Unless the node lies on the border of its zone, this is only its own zone
+	private void searchAround(int from, int to, int node){
+		int column = node % columns, row = node / columns;
+		int first = graph.getZone(Math.max(0, column - 1) + Math.max(0, row - 1) * columns);
+		int last = graph.getZone(Math.min(grid.getMaxColumn(), column + 1) + Math.min(grid.getMaxRow(), row + 1) * columns);
+		zoneSearch.search(from, to, graph.getZoneColumn(first), graph.getZoneRow(first), graph.getZoneMaxColumn(last), graph.getZoneMaxRow(last));
+	}
+
+	//writes the tiles found by the last tile search, from a node back to the search start, not including the start
+	//Adds them to the refined path after the given length, and returns the new length
+	private int refine(int from, int to, int length){
+		for(int node = to; node != from; node = zoneSearch.getParent(node)){
+			length = addRefined(node, length);
+		}
+		return length;
+	}
+
+	//writes a node to the refined path at a index, growing the buffers if required, and returns the index after it
+	private int addRefined(int node, int index){
+		if(index >= steps.length){
+			steps = Arrays.copyOf(steps, steps.length * 2);
+			stepCost = Arrays.copyOf(stepCost, steps.length);
+		}
+		steps[index] = node;
+		return index + 1;
+	}
+
+	//smooths the refined path, writing it to the path buffer, and returns its length
+	//From the goal, the path follows the straight octile line to the furthest node of the refined path within WINDOW steps,
+	//if the line is open and no longer than the refined path to that node, or else takes the next step of the refined path
+	//Accepts: the index of the start in the refined path
+	//NOTE: Without smoothing, a path bends towards each entrance it crosses, and every path across a border meets at the same few tiles.
+	//Lines as long as the refined path are taken too, so paths through the aisles have the shape of the other octile planners (See: line)
+	private int smooth(int last){
+
+		//the cost from the goal to each node of the refined path
+		stepCost[0] = 0;
+		for(int i = 1; i <= last; i++){
+			boolean diagonal = steps[i] % columns != steps[i - 1] % columns && steps[i] / columns != steps[i - 1] / columns;
+			stepCost[i] = stepCost[i - 1] + (diagonal ? OctileGrid.DIAGONAL : OctileGrid.STRAIGHT);
+		}
+
+		//the path buffer holds the goal first, and never the start
+		int length = addStep(steps[0], 0);
+		for(int i = 0; i < last; ){
+			int next = i + 1;
+			for(int j = Math.min(last, i + WINDOW); j > i + 1; j--){
+				double cost = OctileGrid.heuristic(steps[i] % columns, steps[i] / columns, steps[j] % columns, steps[j] / columns);
+				if(cost < stepCost[j] - stepCost[i] + 1e-9 && line(steps[i], steps[j], -1) != -1){
+					next = j;
+					break;
+				}
+			}
+			length = next == i + 1 ? addStep(steps[next], length) : line(steps[i], steps[next], length);
+			i = next;
+		}
+		return length - 1;
+	}
+
+	//follows the straight octile line from a node nearer the goal to a node nearer the start, making the diagonal moves last
+	//so a passenger walking the line from the start side makes them first, as on the paths of JumpStar.java
+	//Accepts: the two nodes, the length of the path buffer to write the nodes of the line to after the first node, or -1 to only check the line
+	//Returns the new length of the path buffer (0 when only checking), or -1 if a move along the line is not possible
+	//NOTE: Moves are the same both ways between open nodes, so a line checked from the goal side can be walked from the start side.
+	//The order of the moves along a line changes how passengers queue in the aisles, so lines keep the order of the other octile planners
+	private int line(int from, int to, int length){
+		int column = from % columns, row = from / columns;
+		int dx = to % columns - column, dy = to / columns - row;
+		int moves = Math.max(Math.abs(dx), Math.abs(dy)), diagonals = Math.min(Math.abs(dx), Math.abs(dy));
+		for(int k = 1; k <= moves; k++){
+
+			//the last moves from this side are the diagonal moves
+			boolean diagonal = k > moves - diagonals;
+			int mx = Math.abs(dx) >= Math.abs(dy) || diagonal ? Integer.signum(dx) : 0;
+			int my = Math.abs(dy) > Math.abs(dx) || diagonal ? Integer.signum(dy) : 0;
+			if(!grid.canMove(column, row, mx, my)) return -1;
+			column += mx;
+			row += my;
+			if(length != -1) length = addStep(column + row * columns, length);
+		}
+		return length == -1 ? 0 : length;
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.main.util;
+
+/**
+ * A packed bitset of collidable pixels, covering a rectangle of the screen. <br>
+ * Each row of pixels is stored as a run of 64 bit words, so a single pixel or a rectangle of pixels
+ * (such as a tile) can be tested in constant time, no matter how many pixels are collidable.
+ * NOTE: All positions are in ABSOLUTE precision. Positions outside the map are never collidable
+ */
+
+public class CollisionMap {
+
+	//the absolute position of the top left pixel of the map
+	private int x, y;
+
+	//the width and height of the map, in pixels
+	private int width, height;
+
+	//the number of words used for each row
+	private int rowWords;
+
+	//the bits, one per pixel, row by row
+	private long[] bits;
+
+	//constructor. Accepts: the absolute position of the map, the width and height of the map
+	public CollisionMap(int x, int y, int width, int height){
+
+		//set the incoming variables
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+
+		//create the bits
+		rowWords = (width + 63) / 64;
+		bits = new long[rowWords * height];
+	}
+
+	//constructor. Accepts: the absolute position of the map, the width and height of the map, the bits of a existing map
+	public CollisionMap(int x, int y, int width, int height, long[] bits){
+		this(x, y, width, height);
+		System.arraycopy(bits, 0, this.bits, 0, this.bits.length);
+	}
+
+	//marks a pixel as collidable
+	public void set(int xa, int ya){
+		int xi = xa - x;
+		int yi = ya - y;
+
+		//ignore pixels outside of the map
+		if(xi < 0 || yi < 0 || xi >= width || yi >= height) return;
+
+		bits[yi * rowWords + (xi >> 6)] |= 1L << (xi & 63);
+	}
+
+	//returns if a pixel is collidable
+	public boolean isCollidable(int xa, int ya){
+		int xi = xa - x;
+		int yi = ya - y;
+
+		//pixels outside of the map are not collidable
+		if(xi < 0 || yi < 0 || xi >= width || yi >= height) return false;
+
+		return (bits[yi * rowWords + (xi >> 6)] & (1L << (xi & 63))) != 0;
+	}
+
+	//returns if any pixel within a rectangle is collidable
+	//Accepts: the absolute position of the rectangle, the width and height of the rectangle
+	public boolean isCollidable(int xa, int ya, int w, int h){
+
+		//clip the rectangle to the map
+		int x0 = Math.max(xa - x, 0);
+		int y0 = Math.max(ya - y, 0);
+		int x1 = Math.min(xa - x + w, width) - 1;
+		int y1 = Math.min(ya - y + h, height) - 1;
+
+		//if the rectangle is entirely outside the map, it is not collidable
+		if(x0 > x1 || y0 > y1) return false;
+
+		//get the first and last word of each row
+		int w0 = x0 >> 6;
+		int w1 = x1 >> 6;
+
+		//loop through each row
+		for(int yi = y0; yi <= y1; yi++){
+			int row = yi * rowWords;
+
+			//loop through each word the rectangle covers, masking out the bits outside the rectangle
+			for(int wi = w0; wi <= w1; wi++){
+				long mask = -1L;
+				if(wi == w0) mask &= -1L << (x0 & 63);
+				if(wi == w1) mask &= -1L >>> (63 - (x1 & 63));
+				if((bits[row + wi] & mask) != 0) return true;
+			}
+		}
+
+		//if no pixel was collidable
+		return false;
+	}
+
+	//returns the number of collidable pixels
+	public int count(){
+		int count = 0;
+		for(long word : bits){
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	//return the x position of the map
+	public int getX(){
+		return x;
+	}
+
+	//return the y position of the map
+	public int getY(){
+		return y;
+	}
+
+	//return the width of the map
+	public int getWidth(){
+		return width;
+	}
+
+	//return the height of the map
+	public int getHeight(){
+		return height;
+	}
+
+	//return the bits of the map, row by row
+	//NOTE: Each row starts on a new word
+	public long[] getBits(){
+		return bits;
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.main.util;
+
+import java.util.Arrays;
+
+/**
+ * The distribution of a value measured over many runs, such as the number of passengers who escaped. <br>
+ * Gives the mean, standard deviation, percentiles and a 95% confidence interval of the mean.
+ * NOTE: Percentiles are interpolated between the two closest values. The confidence interval uses the normal approximation,
+ * so it is only meaningful for a reasonable number of values (30 or more)
+ */
+
+public class Distribution {
+
+	//the z value of a 95% confidence interval
+	public static final double Z95 = 1.959964;
+
+	//the columns of a CSV row
+	public static final String CSVHEADER = "count,mean,sd,min,p5,p25,p50,p75,p95,max,ci95Low,ci95High";
+
+	//the values, in ascending order
+	private double[] values;
+
+	//the mean and standard deviation of the values
+	private double mean, sd;
+
+	//constructor. Accepts: the measured values
+	public Distribution(double[] values){
+		if(values.length == 0) throw new IllegalArgumentException("A distribution needs at least one value");
+
+		//sort a copy of the values
+		this.values = values.clone();
+		Arrays.sort(this.values);
+
+		//get the mean
+		double sum = 0;
+		for(double v : this.values){
+			sum += v;
+		}
+		mean = sum / values.length;
+
+		//get the sample standard deviation
+		double squares = 0;
+		for(double v : this.values){
+			squares += (v - mean) * (v - mean);
+		}
+		sd = values.length > 1 ? Math.sqrt(squares / (values.length - 1)) : 0;
+	}
+
+	//returns the value below which the given percent of values fall. Accepts: the percent (0 - 100)
+	public double percentile(double percent){
+
+		//get the position of the percentile between the sorted values
+		double position = (percent / 100.0) * (values.length - 1);
+		int lower = (int) Math.floor(position);
+		int upper = Math.min(lower + 1, values.length - 1);
+
+		//interpolate between the two closest values
+		double fraction = position - lower;
+		return values[lower] + (values[upper] - values[lower]) * fraction;
+	}
+
+	//returns the half width of the 95% confidence interval of the mean
+	public double getMargin(){
+		return Z95 * sd / Math.sqrt(values.length);
+	}
+
+	//returns the distribution as a CSV row (See: CSVHEADER)
+	public String toCsv(){
+		return values.length + "," + mean + "," + sd + "," + getMin() + "," + percentile(5) + "," + percentile(25) + "," + percentile(50) + ","
+				+ percentile(75) + "," + percentile(95) + "," + getMax() + "," + (mean - getMargin()) + "," + (mean + getMargin());
+	}
+
+	//returns the number of values
+	public int getCount(){
+		return values.length;
+	}
+
+	//returns the mean
+	public double getMean(){
+		return mean;
+	}
+
+	//returns the sample standard deviation
+	public double getSd(){
+		return sd;
+	}
+
+	//returns the smallest value
+	public double getMin(){
+		return values[0];
+	}
+
+	//returns the largest value
+	public double getMax(){
+		return values[values.length - 1];
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.main.util;
+
+import java.util.Arrays;
+
+/**
+ * A compact list of integer ids, kept in ascending order. <br>
+ * Used to loop over only the items that are still active, such as the passengers still on the plane, instead of every item.
+ * Ids are taken out in batches with retain(), which keeps the order of the remaining ids, so loops over the list visit ids in the same order
+ * as a loop over every item. <br>
+ * NOTE: Only the first size() values of the list are ids
+ */
+
+public class IdList {
+
+	/**
+	 * Decides if a id stays in the list (See: retain)
+	 */
+	public interface Filter {
+
+		//returns if the id stays in the list
+		public boolean keep(int id);
+	}
+
+	//the ids, in ascending order
+	private int[] ids;
+
+	//the number of ids in the list
+	private int size = 0;
+
+	//constructor. Accepts: the largest number of ids the list will hold
+	public IdList(int capacity){
+		ids = new int[capacity];
+	}
+
+	//adds a id to the end of the list
+	//NOTE: The id must be larger than all ids in the list
+	public void add(int id){
+		if(size == ids.length) ids = Arrays.copyOf(ids, Math.max(size * 2, 1));
+		ids[size++] = id;
+	}
+
+	//adds a sorted run of ids, keeping the list in ascending order. Accepts: the ids, the number of ids to add
+	public void merge(int[] added, int count){
+		if(count == 0) return;
+		if(size + count > ids.length) ids = Arrays.copyOf(ids, Math.max(size + count, ids.length * 2));
+
+		//merge from the back, so no id is overwritten before it is moved
+		int i = size - 1, j = count - 1, k = size + count - 1;
+		while(j >= 0){
+			if(i >= 0 && ids[i] > added[j]) ids[k--] = ids[i--];
+			else ids[k--] = added[j--];
+		}
+		size += count;
+	}
+
+	//removes every id the filter does not keep, keeping the order of the remaining ids
+	public void retain(Filter filter){
+		int kept = 0;
+		for(int i = 0; i < size; i++){
+			if(filter.keep(ids[i])) ids[kept++] = ids[i];
+		}
+		size = kept;
+	}
+
+	//returns the id at a index of the list
+	public int get(int index){
+		return ids[index];
+	}
+
+	//returns the number of ids in the list
+	public int size(){
+		return size;
+	}
+
+	//returns the ids
+	//NOTE: Only the first size() values are ids
+	public int[] getIds(){
+		return ids;
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.main.util;
+
+/**
+ * Indexed binary min-heap ADT.
+ * Holds integer keys in the range [0, capacity), each with a priority. <br>
+ * Keys with equal priority are removed in the order they were added. <br>
+ * Implementation: add, poll and decreaseKey are O(log n), contains is O(1)
+ */
+
+public class IndexedHeap {
+
+	//the keys, in heap order
+	private int[] heap;
+
+	//the position of each key in the heap. -1 if the key is not in the heap
+	private int[] position;
+
+	//the priority of each key
+	private double[] priority;
+
+	//the order in which each key was added, used to break ties between equal priorities
+	private long[] order;
+
+	//the number of keys currently in the heap
+	private int size = 0;
+
+	//a counter incremented on every add
+	private long sequence = 0;
+
+	//constructor. Accepts: the maximum number of keys
+	public IndexedHeap(int capacity){
+
+		//create the arrays
+		heap = new int[capacity];
+		position = new int[capacity];
+		priority = new double[capacity];
+		order = new long[capacity];
+
+		//initially, no key is in the heap
+		for(int i = 0; i < capacity; i++){
+			position[i] = -1;
+		}
+	}
+
+	//returns if empty
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	//returns the size
+	public int size(){
+		return size;
+	}
+
+	//returns the maximum number of keys
+	public int capacity(){
+		return position.length;
+	}
+
+	//checks if a key is in the heap
+	public boolean contains(int key){
+		return position[key] != -1;
+	}
+
+	//returns the priority of a key
+	public double getPriority(int key){
+		return priority[key];
+	}
+
+	//adds a key with the given priority
+	public void add(int key, double priority){
+
+		//set the data for the key
+		this.priority[key] = priority;
+		order[key] = sequence++;
+
+		//place the key at the bottom of the heap and move it up
+		heap[size] = key;
+		position[key] = size;
+		siftUp(size++);
+	}
+
+	//view the key with the lowest priority
+	public int peek(){
+		return heap[0];
+	}
+
+	//removes and returns the key with the lowest priority
+	public int poll(){
+
+		//get the top key
+		int key = heap[0];
+
+		//move the last key to the top and move it down
+		size--;
+		if(size > 0){
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+
+		//the key is no longer in the heap
+		position[key] = -1;
+		return key;
+	}
+
+	//lowers the priority of a key already in the heap
+	//NOTE: The key keeps its original insertion order for tie breaking
+	public void decreaseKey(int key, double priority){
+		this.priority[key] = priority;
+		siftUp(position[key]);
+	}
+
+	//clears the heap
+	//NOTE: Only the keys in the heap are touched, so clearing costs O(size) rather than O(capacity)
+	public void clear(){
+		for(int i = 0; i < size; i++){
+			position[heap[i]] = -1;
+		}
+		size = 0;
+		sequence = 0;
+	}
+
+	//moves the key at the given heap position up until the heap is ordered
+	private void siftUp(int i){
+		int key = heap[i];
+
+		while(i > 0){
+
+			//get the parent position
+			int parent = (i - 1) / 2;
+
+			//stop once the parent is lower
+			if(!less(key, heap[parent])) break;
+
+			//move the parent down
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+
+		heap[i] = key;
+		position[key] = i;
+	}
+
+	//moves the key at the given heap position down until the heap is ordered
+	private void siftDown(int i){
+		int key = heap[i];
+
+		while(true){
+
+			//get the lowest child
+			int child = 2 * i + 1;
+			if(child >= size) break;
+			if(child + 1 < size && less(heap[child + 1], heap[child])) child++;
+
+			//stop once the key is lower than both children
+			if(!less(heap[child], key)) break;
+
+			//move the child up
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+
+		heap[i] = key;
+		position[key] = i;
+	}
+
+	//compares two keys by priority, then by insertion order
+	private boolean less(int a, int b){
+		if(priority[a] != priority[b]) return priority[a] < priority[b];
+		return order[a] < order[b];
+	}
+
+}
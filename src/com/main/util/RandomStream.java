@@ -0,0 +1,107 @@
+package com.main.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A splittable stream of random numbers, for a independent and repeatable stream per entity. <br>
+ * A stream can be split into a new stream, whose values are independent of the stream it was split from.
+ * Each entity therefore owns its own stream, split from the stream of the plane, which is seeded from the seed of the run.
+ * No stream is shared between threads, and the same seed always gives every entity the same values. <br>
+ * NOTE: Uses the same SplitMix64 algorithm as java.util.SplittableRandom (Java 8), and gives the same values for the same seed
+ */
+
+public class RandomStream {
+
+	//the increment of the default stream, the odd integer closest to 2^64 / the golden ratio
+	private static final long GOLDENGAMMA = 0x9e3779b97f4a7c15L;
+
+	//the scale of a double made from the 53 high bits of a long
+	private static final double DOUBLEUNIT = 1.0 / (1L << 53);
+
+	//the seed of the next stream created without a seed
+	private static final AtomicLong defaultSeed = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+	//the current seed, and the increment added for each value
+	private long seed;
+	private long gamma;
+
+	//constructor. Creates a stream with a seed that differs every time
+	public RandomStream(){
+		this(mix64(defaultSeed.getAndAdd(2 * GOLDENGAMMA)));
+	}
+
+	//constructor. Accepts: the seed
+	public RandomStream(long seed){
+		this(seed, GOLDENGAMMA);
+	}
+
+	//constructor. Accepts: the seed, the increment (must be odd)
+	private RandomStream(long seed, long gamma){
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	//returns a new stream, independent of this stream
+	//NOTE: Advances this stream by two values
+	public RandomStream split(){
+		return new RandomStream(nextLong(), mixGamma(nextSeed()));
+	}
+
+	//returns a random long
+	public long nextLong(){
+		return mix64(nextSeed());
+	}
+
+	//returns a random int in the range [0, bound)
+	public int nextInt(int bound){
+		if(bound <= 0) throw new IllegalArgumentException("The bound must be positive");
+
+		//a power of 2 bound uses the low bits
+		int r = mix32(nextSeed());
+		int m = bound - 1;
+		if((bound & m) == 0) return r & m;
+
+		//otherwise, reject values that would favour the lower numbers
+		for(int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1);
+		return r;
+	}
+
+	//returns a random double in the range [0, 1)
+	public double nextDouble(){
+		return (mix64(nextSeed()) >>> 11) * DOUBLEUNIT;
+	}
+
+	//returns the seed of a numbered stream derived from a seed, such as the seed of a replicate of a run
+	//NOTE: Streams next to each other have unrelated seeds
+	public static long deriveSeed(long seed, long index){
+		return mix64(seed + (index + 1) * GOLDENGAMMA);
+	}
+
+	//advances the seed
+	private long nextSeed(){
+		return seed += gamma;
+	}
+
+	//mixes the bits of a long (the SplitMix64 finalizer)
+	public static long mix64(long z){
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	//mixes the bits of a long into a int
+	private static int mix32(long z){
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	//mixes the bits of a long into a increment, which must be odd and have enough changing bits
+	private static long mixGamma(long z){
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+
+}
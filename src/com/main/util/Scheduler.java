@@ -0,0 +1,70 @@
+package com.main.util;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * A queue of events, each fired at the start of a given tick. <br>
+ * Used for behaviour that waits for a time, such as a passenger waking from their initial response or a exit door opening,
+ * so no timer is checked every tick. Events due at the same tick are fired in the order they were scheduled. <br>
+ * NOTE: Events are only fired by runDue, and may schedule new events while being fired
+ */
+
+public class Scheduler {
+
+	/**
+	 * A event fired by the scheduler
+	 */
+	public interface Event {
+
+		//fires the event. Accepts: the current tick
+		public void fire(long tick);
+	}
+
+	/**
+	 * A scheduled event, with its tick and the order it was scheduled in
+	 */
+	private static class Entry {
+		final long tick, order;
+		final Event event;
+
+		Entry(long tick, long order, Event event){
+			this.tick = tick;
+			this.order = order;
+			this.event = event;
+		}
+	}
+
+	//orders the entries by tick, then by the order they were scheduled in
+	private static final Comparator<Entry> entrySorter = new Comparator<Entry>(){
+		public int compare(Entry a, Entry b){
+			if(a.tick != b.tick) return a.tick < b.tick ? -1 : 1;
+			return a.order < b.order ? -1 : (a.order == b.order ? 0 : 1);
+		}
+	};
+
+	//the scheduled events
+	private PriorityQueue<Entry> events = new PriorityQueue<Entry>(64, entrySorter);
+
+	//the number of events scheduled so far
+	private long scheduled = 0;
+
+	//schedules a event. Accepts: the tick to fire at, the event
+	public void schedule(long tick, Event event){
+		events.add(new Entry(tick, scheduled++, event));
+	}
+
+	//fires every event due at or before a tick. Accepts: the current tick
+	public void runDue(long tick){
+		while(!events.isEmpty() && events.peek().tick <= tick){
+			Entry entry = events.poll();
+			entry.event.fire(tick);
+		}
+	}
+
+	//returns the number of events waiting to fire
+	public int size(){
+		return events.size();
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.main.util;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid of buckets, used to find items close to a position without checking every item. <br>
+ * Each item is a integer id with a point position, and is kept in the bucket (cell) its point lies in.
+ * Items are moved between cells as they move, so a query only touches the cells around it. <br>
+ * NOTE: All positions are in ABSOLUTE precision. Points outside the grid are kept in the nearest edge cell
+ */
+
+public class SpatialGrid {
+
+	//the absolute position of the top left of the grid
+	private int x, y;
+
+	//the width and height of a cell, in pixels
+	private int cellSize;
+
+	//the number of cell columns and rows
+	private int columns, rows;
+
+	//the ids in each cell, and the number of ids in each cell
+	private int[][] cells;
+	private int[] counts;
+
+	//the cell each id is in (-1 if the id is not in the grid), and its slot within the cell
+	private int[] cellOf;
+	private int[] slot;
+
+	//constructor. Accepts: the absolute position of the grid, the width and height of the grid, the cell size, the largest id + 1
+	public SpatialGrid(int x, int y, int width, int height, int cellSize, int capacity){
+
+		//set the incoming variables
+		this.x = x;
+		this.y = y;
+		this.cellSize = cellSize;
+		columns = Math.max((width + cellSize - 1) / cellSize, 1);
+		rows = Math.max((height + cellSize - 1) / cellSize, 1);
+
+		//create the cells
+		cells = new int[columns * rows][];
+		counts = new int[columns * rows];
+		for(int i = 0; i < cells.length; i++){
+			cells[i] = new int[4];
+		}
+
+		//initially, no id is in the grid
+		cellOf = new int[capacity];
+		slot = new int[capacity];
+		Arrays.fill(cellOf, -1);
+	}
+
+	//adds a id at the given position
+	public void insert(int id, int xa, int ya){
+		add(id, column(xa) + row(ya) * columns);
+	}
+
+	//moves a id to the given position
+	//NOTE: Only changes the buckets if the id moves into a new cell
+	public void move(int id, int xa, int ya){
+
+		//ignore ids not in the grid
+		if(cellOf[id] == -1) return;
+
+		//get the new cell. If it is the same, nothing changes
+		int cell = column(xa) + row(ya) * columns;
+		if(cell == cellOf[id]) return;
+
+		//move the id to the new cell
+		remove(id);
+		add(id, cell);
+	}
+
+	//removes a id from the grid
+	public void remove(int id){
+
+		//ignore ids not in the grid
+		int cell = cellOf[id];
+		if(cell == -1) return;
+
+		//move the last id of the cell into the removed slot
+		int last = cells[cell][--counts[cell]];
+		cells[cell][slot[id]] = last;
+		slot[last] = slot[id];
+
+		cellOf[id] = -1;
+	}
+
+	//returns if a id is in the grid
+	public boolean contains(int id){
+		return cellOf[id] != -1;
+	}
+
+	//returns the cell column of a absolute x position
+	public int column(int xa){
+		if(xa < x) return 0;
+		return Math.min((xa - x) / cellSize, columns - 1);
+	}
+
+	//returns the cell row of a absolute y position
+	public int row(int ya){
+		if(ya < y) return 0;
+		return Math.min((ya - y) / cellSize, rows - 1);
+	}
+
+	//finds the ids in every cell within a distance of a position, writing them to a array
+	//Accepts: the absolute position, the distance, the array to write to (must hold every id). Returns the number of ids found
+	//NOTE: Ids are found by cell, so the caller must still test the exact distance. With a cell size of at least the distance,
+	//no more than 3 x 3 cells are checked
+	public int queryRadius(int xa, int ya, int radius, int[] out){
+		int c0 = column(xa - radius), c1 = column(xa + radius);
+		int r0 = row(ya - radius), r1 = row(ya + radius);
+		
+		//copy the ids of each cell in range
+		int found = 0;
+		for(int r = r0; r <= r1; r++){
+			for(int c = c0; c <= c1; c++){
+				int cell = c + r * columns;
+				System.arraycopy(cells[cell], 0, out, found, counts[cell]);
+				found += counts[cell];
+			}
+		}
+		return found;
+	}
+
+	//returns the ids in a cell
+	//NOTE: Only the first getCount() values are ids
+	public int[] getCell(int column, int row){
+		return cells[column + row * columns];
+	}
+
+	//returns the number of ids in a cell
+	public int getCount(int column, int row){
+		return counts[column + row * columns];
+	}
+
+	//returns the cell size
+	public int getCellSize(){
+		return cellSize;
+	}
+
+	//adds a id to a cell
+	private void add(int id, int cell){
+
+		//grow the cell if required
+		if(counts[cell] == cells[cell].length) cells[cell] = Arrays.copyOf(cells[cell], counts[cell] * 2);
+
+		//add the id to the end of the cell
+		slot[id] = counts[cell];
+		cells[cell][counts[cell]++] = id;
+		cellOf[id] = cell;
+	}
+
+}
@@ -79,6 +79,22 @@ public class Vector2i {
 		return false;
 	}
 	
+	//packs a x and y component into a single integer
+	//NOTE: Both components must be in the range [0, 65535]
+	public static int pack(int x, int y){
+		return (x << 16) | y;
+	}
+	
+	//returns the x component of a packed integer
+	public static int unpackX(int packed){
+		return packed >>> 16;
+	}
+	
+	//returns the y component of a packed integer
+	public static int unpackY(int packed){
+		return packed & 0xffff;
+	}
+	
 	//returns the distance between two vectors
 	public double getDistance(Vector2i vector){
 		double dx = getX() - vector.getX();